@@ -0,0 +1,66 @@
+package pt.ipbeja.app.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pt.ipbeja.app.model.WSModel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GenerationBenchmark class.
+ * Measures the creation of a game: reading the words, placing them and filling the board.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenerationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int boardSize; // Number of lines and columns of the board
+
+    @Param({"10", "100", "1000"})
+    private int wordCount; // Number of words, capped so they cover at most 30% of the board
+
+    @Param({"false", "true"})
+    private boolean withDiagonals; // Whether diagonals are allowed
+
+    private Path wordsFile; // File with the words of the game
+
+    /**
+     * Creates the words file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        wordsFile = WordFiles.create(WordFiles.wordsForBoard(wordCount, boardSize, boardSize), 42);
+    }
+
+    /**
+     * Deletes the words file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(wordsFile);
+    }
+
+    /**
+     * Creates a game.
+     *
+     * @return the game model
+     */
+    @Benchmark
+    public WSModel createModel() {
+        return new WSModel(wordsFile.toString(), withDiagonals, boardSize, boardSize);
+    }
+}
@@ -0,0 +1,63 @@
+package pt.ipbeja.app.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pt.ipbeja.app.model.WSModel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoadingBenchmark class.
+ * Measures reading a words file.
+ * Reading does not depend on the diagonals, so this benchmark has no diagonals parameter.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int wordCount; // Number of words in the file
+
+    private Path wordsFile; // File with the words
+
+    /**
+     * Creates the words file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        wordsFile = WordFiles.create(wordCount, 42);
+    }
+
+    /**
+     * Deletes the words file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(wordsFile);
+    }
+
+    /**
+     * Reads the words file.
+     *
+     * @return the words read
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public List<String> readWordsFromFile() throws IOException {
+        return WSModel.readWordsFromFile(wordsFile.toString());
+    }
+}
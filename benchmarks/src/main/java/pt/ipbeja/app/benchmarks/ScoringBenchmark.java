@@ -0,0 +1,78 @@
+package pt.ipbeja.app.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pt.ipbeja.app.model.Position;
+import pt.ipbeja.app.model.WSModel;
+import pt.ipbeja.app.model.WordPlacement;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScoringBenchmark class.
+ * Measures scoring a word found by the player with selectionScore, the read-only scoring that wordFound runs
+ * once the word is marked as found.
+ * The game is created once per trial and its placed words are scored in turn; nothing is marked as found,
+ * so the words never run out and the game never ends (which would write to scores.txt).
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int boardSize; // Number of lines and columns of the board
+
+    @Param({"false", "true"})
+    private boolean withDiagonals; // Whether diagonals are allowed
+
+    private WSModel model; // Game model
+    private int[] ids; // Id of each placed word
+    private Position[] firsts; // First position of each placed word
+    private Position[] lasts; // Last position of each placed word
+    private int next = 0; // Next word to score
+
+    /**
+     * Creates the game and the list of its placed words.
+     *
+     * @throws IOException if the words file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path wordsFile = WordFiles.create(WordFiles.wordsForBoard(1000, boardSize, boardSize), 42);
+        model = new WSModel(wordsFile.toString(), withDiagonals, boardSize, boardSize);
+        Files.deleteIfExists(wordsFile);
+
+        List<WordPlacement> placements = model.getPlacements();
+        ids = new int[placements.size()];
+        firsts = new Position[placements.size()];
+        lasts = new Position[placements.size()];
+        for (int i = 0; i < placements.size(); i++) {
+            WordPlacement placement = placements.get(i);
+            firsts[i] = placement.start();
+            lasts[i] = placement.end();
+            ids[i] = model.wordIdAt(firsts[i], lasts[i]);
+        }
+    }
+
+    /**
+     * Scores the next placed word.
+     *
+     * @return the score of the word
+     */
+    @Benchmark
+    public int selectionScore() {
+        int i = next;
+        next = (next + 1) % ids.length;
+        return model.selectionScore(ids[i], firsts[i], lasts[i]);
+    }
+}
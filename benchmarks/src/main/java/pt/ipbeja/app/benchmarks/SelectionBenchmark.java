@@ -0,0 +1,84 @@
+package pt.ipbeja.app.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pt.ipbeja.app.model.Position;
+import pt.ipbeja.app.model.WSModel;
+import pt.ipbeja.app.model.WordPlacement;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SelectionBenchmark class.
+ * Measures the validation of the selections made by the player with wordIdAt, the read-only check that
+ * isFirstAndLastOfWord also runs before marking the word as found.
+ * Half of the selections are the placed words and half are random straight segments.
+ * Nothing is marked as found, so every iteration validates the same selections and the game never ends
+ * (which would write to scores.txt).
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectionBenchmark {
+    private static final int SELECTIONS = 1024; // Number of selections cycled through
+
+    @Param({"10", "100", "1000"})
+    private int boardSize; // Number of lines and columns of the board
+
+    @Param({"false", "true"})
+    private boolean withDiagonals; // Whether diagonals are allowed
+
+    private WSModel model; // Game model
+    private final Position[] firsts = new Position[SELECTIONS]; // First position of each selection
+    private final Position[] lasts = new Position[SELECTIONS]; // Last position of each selection
+    private int next = 0; // Next selection to validate
+
+    /**
+     * Creates the game and the selections.
+     *
+     * @throws IOException if the words file cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        Path wordsFile = WordFiles.create(WordFiles.wordsForBoard(1000, boardSize, boardSize), 42);
+        model = new WSModel(wordsFile.toString(), withDiagonals, boardSize, boardSize);
+        Files.deleteIfExists(wordsFile);
+
+        List<WordPlacement> placements = model.getPlacements();
+        Random random = new Random(7);
+        for (int i = 0; i < SELECTIONS; i++) {
+            if (i % 2 == 0) {
+                WordPlacement placement = placements.get(random.nextInt(placements.size()));
+                firsts[i] = placement.start();
+                lasts[i] = placement.end();
+            } else {
+                int line = random.nextInt(boardSize);
+                int col = random.nextInt(boardSize - WordFiles.MAX_LENGTH + 1);
+                firsts[i] = new Position(line, col);
+                lasts[i] = new Position(line, col + WordFiles.MIN_LENGTH + random.nextInt(WordFiles.MAX_LENGTH - WordFiles.MIN_LENGTH));
+            }
+        }
+    }
+
+    /**
+     * Validates the next selection.
+     *
+     * @return the id of the word selected, or WordDictionary.NOT_FOUND
+     */
+    @Benchmark
+    public int wordIdAt() {
+        int i = next;
+        next = (next + 1) % SELECTIONS;
+        return model.wordIdAt(firsts[i], lasts[i]);
+    }
+}
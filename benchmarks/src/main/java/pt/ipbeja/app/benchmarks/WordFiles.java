@@ -0,0 +1,60 @@
+package pt.ipbeja.app.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * WordFiles class.
+ * Creates temporary word files with random words for the benchmarks.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class WordFiles {
+    public static final int MIN_LENGTH = 3; // Minimum length of the generated words
+    public static final int MAX_LENGTH = 8; // Maximum length of the generated words
+    private static final double MAX_FILL = 0.3; // Maximum fraction of the board covered by the words
+
+    /**
+     * Gets the number of words to generate for a board, so the words cover at most 30% of its cells
+     * and the placement never fails.
+     *
+     * @param wordCount the number of words wanted
+     * @param nLines    the number of lines of the board
+     * @param nCols     the number of columns of the board
+     * @return the number of words to generate
+     */
+    public static int wordsForBoard(int wordCount, int nLines, int nCols) {
+        double averageLength = (MIN_LENGTH + MAX_LENGTH) / 2.0;
+        int maxWords = (int) (nLines * (double) nCols * MAX_FILL / averageLength);
+        return Math.max(1, Math.min(wordCount, maxWords));
+    }
+
+    /**
+     * Creates a temporary file with distinct random words, one per line.
+     *
+     * @param wordCount the number of words
+     * @param seed      the seed of the random words
+     * @return the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path create(int wordCount, long seed) throws IOException {
+        Random random = new Random(seed);
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < wordCount) {
+            int length = MIN_LENGTH + random.nextInt(MAX_LENGTH - MIN_LENGTH + 1);
+            StringBuilder word = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                word.append((char) ('A' + random.nextInt(26)));
+            }
+            words.add(word.toString());
+        }
+        Path file = Files.createTempFile("words", ".txt");
+        Files.write(file, words);
+        return file;
+    }
+}
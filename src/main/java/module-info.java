@@ -1,5 +1,6 @@
 module pt.ipbeja {
     requires javafx.controls;
+    requires jdk.httpserver;
     exports pt.ipbeja.app.ui;
 
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package pt.ipbeja.app.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * AhoCorasick class.
+ * Automaton that finds all the occurrences of a set of words in a text read one letter at a time.
+ * Each node is a prefix of some word; when a letter does not continue the current prefix the automaton
+ * follows the failure link to the longest suffix that is still a prefix, so each letter is read once.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class AhoCorasick {
+    public static final int ROOT = 0; // Node of the empty prefix
+    public static final int NONE = -1; // Missing node or word
+
+    private char[] labels = new char[16]; // Letter of each node
+    private int[] firstChild = new int[16]; // First child of each node
+    private int[] nextSibling = new int[16]; // Next sibling of each node
+    private int[] wordIds = new int[16]; // Id of the word that ends in each node
+    private int[] failure = new int[16]; // Longest proper suffix of each node that is also a node
+    private int[] output = new int[16]; // Nearest node in the failure chain where a word ends
+    private int nodeCount = 0; // Number of nodes
+    private final int[] wordLengths; // Length of each word, by id
+
+    /**
+     * Constructor for AhoCorasick.
+     *
+     * @param words the words to find, where the index of each word is its id
+     */
+    public AhoCorasick(List<String> words) {
+        this.wordLengths = new int[words.size()];
+        newNode('\0');
+        for (int id = 0; id < words.size(); id++) {
+            String word = words.get(id);
+            wordLengths[id] = word.length();
+            insert(word, id);
+        }
+        buildLinks();
+    }
+
+    /**
+     * Adds a word to the automaton.
+     *
+     * @param word the word
+     * @param id   the id of the word
+     */
+    private void insert(String word, int id) {
+        int node = ROOT;
+        for (int i = 0; i < word.length(); i++) {
+            char letter = word.charAt(i);
+            int next = child(node, letter);
+            if (next == NONE) {
+                next = newNode(letter);
+                nextSibling[next] = firstChild[node];
+                firstChild[node] = next;
+            }
+            node = next;
+        }
+        if (node != ROOT) {
+            wordIds[node] = id;
+        }
+    }
+
+    /**
+     * Creates a node, growing the arrays when needed.
+     *
+     * @param letter the letter of the node
+     * @return the new node
+     */
+    private int newNode(char letter) {
+        if (nodeCount == labels.length) {
+            int capacity = labels.length * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            wordIds = Arrays.copyOf(wordIds, capacity);
+            failure = Arrays.copyOf(failure, capacity);
+            output = Arrays.copyOf(output, capacity);
+        }
+        labels[nodeCount] = letter;
+        firstChild[nodeCount] = NONE;
+        nextSibling[nodeCount] = NONE;
+        wordIds[nodeCount] = NONE;
+        failure[nodeCount] = ROOT;
+        output[nodeCount] = NONE;
+        return nodeCount++;
+    }
+
+    /**
+     * Builds the failure and output links, visiting the nodes by depth.
+     */
+    private void buildLinks() {
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int node = firstChild[ROOT]; node != NONE; node = nextSibling[node]) {
+            queue.add(node);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.remove();
+            for (int next = firstChild[node]; next != NONE; next = nextSibling[next]) {
+                failure[next] = step(failure[node], labels[next]);
+                output[next] = (wordIds[failure[next]] != NONE) ? failure[next] : output[failure[next]];
+                queue.add(next);
+            }
+        }
+    }
+
+    /**
+     * Gets the child of a node for a letter.
+     *
+     * @param node   the node
+     * @param letter the letter
+     * @return the child, or NONE if there is no child for the letter
+     */
+    private int child(int node, char letter) {
+        for (int next = firstChild[node]; next != NONE; next = nextSibling[next]) {
+            if (labels[next] == letter) {
+                return next;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Moves the automaton with the next letter of the text.
+     *
+     * @param node   the current node
+     * @param letter the next letter
+     * @return the new node
+     */
+    public int step(int node, char letter) {
+        while (true) {
+            int next = child(node, letter);
+            if (next != NONE) {
+                return next;
+            }
+            if (node == ROOT) {
+                return ROOT;
+            }
+            node = failure[node];
+        }
+    }
+
+    /**
+     * Gets the id of the word that ends exactly at a node.
+     *
+     * @param node the node
+     * @return the id of the word, or NONE
+     */
+    public int wordAt(int node) {
+        return wordIds[node];
+    }
+
+    /**
+     * Gets the next node, following the failure links, where another word ends.
+     * Starting from the current node and following these links gives every word that ends at the current letter.
+     *
+     * @param node the node
+     * @return the next node where a word ends, or NONE
+     */
+    public int nextOutput(int node) {
+        return output[node];
+    }
+
+    /**
+     * Gets the length of a word.
+     *
+     * @param id the id of the word
+     * @return the length of the word
+     */
+    public int wordLength(int id) {
+        return wordLengths[id];
+    }
+}
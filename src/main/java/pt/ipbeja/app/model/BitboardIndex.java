@@ -0,0 +1,280 @@
+package pt.ipbeja.app.model;
+
+import java.util.List;
+
+/**
+ * BitboardIndex class.
+ * Keeps the filled cells of the grid as bits, one bit per cell, in four copies:
+ * by lines, by columns (transposed) and by each diagonal (shifted so every diagonal is a row of bits).
+ * Every slot is then a range of bits in a single lane, so checking it takes a few mask operations,
+ * and all the starts of a lane can be found at once with shifts.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class BitboardIndex implements SlotIndex {
+    private final int nLines; // Number of lines of the grid
+    private final int nCols; // Number of columns of the grid
+    private final List<Direction> directions; // Directions kept in the index
+    private final long[][] bits; // Filled cells per direction, all the lanes of a direction one after the other
+    private final int[][] laneOffsets; // Index of the first long of each lane, per direction
+    private final int[][] laneLengths; // Number of cells of each lane, per direction
+
+    /**
+     * Constructor for BitboardIndex.
+     * Builds the index from the cells already filled in the grid.
+     *
+     * @param grid       the grid to index
+     * @param directions the directions to keep in the index
+     */
+    public BitboardIndex(LetterGrid grid, List<Direction> directions) {
+        this.nLines = grid.nLines();
+        this.nCols = grid.nCols();
+        this.directions = directions;
+        int nDirections = Direction.values().length;
+        this.bits = new long[nDirections][];
+        this.laneOffsets = new int[nDirections][];
+        this.laneLengths = new int[nDirections][];
+        for (Direction direction : directions) {
+            buildLanes(direction);
+        }
+        for (int line = 0; line < nLines; line++) {
+            for (int col = 0; col < nCols; col++) {
+                if (!grid.isEmpty(line, col)) {
+                    occupy(line, col);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the empty lanes of a direction.
+     *
+     * @param direction the direction
+     */
+    private void buildLanes(Direction direction) {
+        int d = direction.ordinal();
+        int nLanes = nLanes(direction);
+        laneOffsets[d] = new int[nLanes + 1];
+        laneLengths[d] = new int[nLanes];
+        for (int lane = 0; lane < nLanes; lane++) {
+            laneLengths[d][lane] = laneLength(direction, lane);
+            laneOffsets[d][lane + 1] = laneOffsets[d][lane] + (laneLengths[d][lane] + 63) / 64;
+        }
+        bits[d] = new long[laneOffsets[d][nLanes]];
+    }
+
+    /**
+     * Gets the number of lanes of a direction.
+     *
+     * @param direction the direction
+     * @return the number of lanes
+     */
+    private int nLanes(Direction direction) {
+        return switch (direction) {
+            case HORIZONTAL -> nLines;
+            case VERTICAL -> nCols;
+            case DIAGONAL_RIGHT, DIAGONAL_LEFT -> nLines + nCols - 1;
+        };
+    }
+
+    /**
+     * Gets the lane of a cell in a direction.
+     * Diagonals ↘ are numbered by col - line and diagonals ↙ by line + col.
+     *
+     * @param direction the direction
+     * @param line      the line of the cell
+     * @param col       the column of the cell
+     * @return the lane of the cell
+     */
+    private int laneOf(Direction direction, int line, int col) {
+        return switch (direction) {
+            case HORIZONTAL -> line;
+            case VERTICAL -> col;
+            case DIAGONAL_RIGHT -> col - line + nLines - 1;
+            case DIAGONAL_LEFT -> line + col;
+        };
+    }
+
+    /**
+     * Gets the first line of a lane (0 for horizontal lanes, which have a single line).
+     *
+     * @param direction the direction
+     * @param lane      the lane
+     * @return the first line of the lane
+     */
+    private int firstLine(Direction direction, int lane) {
+        return switch (direction) {
+            case HORIZONTAL, VERTICAL -> 0;
+            case DIAGONAL_RIGHT -> Math.max(0, nLines - 1 - lane);
+            case DIAGONAL_LEFT -> Math.max(0, lane - (nCols - 1));
+        };
+    }
+
+    /**
+     * Gets the position of a cell inside its lane in a direction.
+     * The position grows by one for each step in the direction.
+     *
+     * @param direction the direction
+     * @param line      the line of the cell
+     * @param col       the column of the cell
+     * @return the position of the cell in its lane
+     */
+    private int positionInLane(Direction direction, int line, int col) {
+        if (direction == Direction.HORIZONTAL) {
+            return col;
+        }
+        return line - firstLine(direction, laneOf(direction, line, col));
+    }
+
+    /**
+     * Gets the number of cells of a lane.
+     *
+     * @param direction the direction
+     * @param lane      the lane
+     * @return the number of cells
+     */
+    private int laneLength(Direction direction, int lane) {
+        return switch (direction) {
+            case HORIZONTAL -> nCols;
+            case VERTICAL -> nLines;
+            case DIAGONAL_RIGHT -> Math.min(nLines - 1, nCols - 1 - (lane - nLines + 1)) - firstLine(direction, lane) + 1;
+            case DIAGONAL_LEFT -> Math.min(nLines - 1, lane) - firstLine(direction, lane) + 1;
+        };
+    }
+
+    /**
+     * Checks if a word fits in a slot, that is, if all its cells are empty and inside the grid.
+     *
+     * @param line       the line of the first letter
+     * @param col        the column of the first letter
+     * @param direction  the direction of the word
+     * @param wordLength the length of the word
+     * @return true if the word fits, false otherwise
+     */
+    @Override
+    public boolean fits(int line, int col, Direction direction, int wordLength) {
+        int d = direction.ordinal();
+        int lane = laneOf(direction, line, col);
+        int from = positionInLane(direction, line, col);
+        int to = from + wordLength; // Exclusive
+        if (to > laneLengths[d][lane]) {
+            return false;
+        }
+        long[] laneBits = bits[d];
+        int offset = laneOffsets[d][lane];
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            long mask = -1L;
+            if (word == from >>> 6) {
+                mask &= -1L << from;
+            }
+            if (word == (to - 1) >>> 6) {
+                mask &= -1L >>> (63 - ((to - 1) & 63));
+            }
+            if ((laneBits[offset + word] & mask) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the slots where a word of the given length fits, in all the indexed directions.
+     *
+     * @param wordLength the length of the word
+     * @return the number of slots
+     */
+    @Override
+    public long countFits(int wordLength) {
+        long count = 0;
+        for (Direction direction : directions) {
+            int nLanes = laneLengths[direction.ordinal()].length;
+            for (int lane = 0; lane < nLanes; lane++) {
+                for (long starts : freeStarts(direction, lane, wordLength)) {
+                    count += Long.bitCount(starts);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds all the positions of a lane where a word of the given length fits.
+     * Bit i of the result is set if the cells i to i + wordLength - 1 of the lane are empty.
+     * The empty cells are shifted and combined with themselves, doubling the checked length each time.
+     *
+     * @param direction  the direction of the lane
+     * @param lane       the lane
+     * @param wordLength the length of the word
+     * @return the starts where the word fits, as bits
+     */
+    public long[] freeStarts(Direction direction, int lane, int wordLength) {
+        int d = direction.ordinal();
+        int offset = laneOffsets[d][lane];
+        int nWords = laneOffsets[d][lane + 1] - offset;
+        int length = laneLengths[d][lane];
+        long[] starts = new long[nWords];
+        for (int word = 0; word < nWords; word++) {
+            starts[word] = ~bits[d][offset + word];
+        }
+        if (nWords > 0 && (length & 63) != 0) {
+            starts[nWords - 1] &= (1L << (length & 63)) - 1; // Cells past the end of the lane are not empty
+        }
+        int covered = 1;
+        while (covered < wordLength) {
+            int shift = Math.min(covered, wordLength - covered);
+            andShiftedRight(starts, shift);
+            covered += shift;
+        }
+        return starts;
+    }
+
+    /**
+     * Combines a row of bits with itself shifted towards the start, so bit i keeps
+     * its value only if bit i + shift is also set.
+     *
+     * @param row   the row of bits
+     * @param shift the number of bits to shift
+     */
+    private static void andShiftedRight(long[] row, int shift) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int word = 0; word < row.length; word++) {
+            int source = word + wordShift;
+            long low = (source < row.length) ? row[source] : 0;
+            long high = (source + 1 < row.length) ? row[source + 1] : 0;
+            long shifted = (bitShift == 0) ? low : (low >>> bitShift) | (high << (64 - bitShift));
+            row[word] &= shifted;
+        }
+    }
+
+    /**
+     * Updates the index after a cell is filled.
+     *
+     * @param line the line of the cell
+     * @param col  the column of the cell
+     */
+    @Override
+    public void occupy(int line, int col) {
+        for (Direction direction : directions) {
+            int d = direction.ordinal();
+            int position = positionInLane(direction, line, col);
+            bits[d][laneOffsets[d][laneOf(direction, line, col)] + (position >>> 6)] |= 1L << position;
+        }
+    }
+
+    /**
+     * Updates the index after a cell is emptied.
+     *
+     * @param line the line of the cell
+     * @param col  the column of the cell
+     */
+    @Override
+    public void release(int line, int col) {
+        for (Direction direction : directions) {
+            int d = direction.ordinal();
+            int position = positionInLane(direction, line, col);
+            bits[d][laneOffsets[d][laneOf(direction, line, col)] + (position >>> 6)] &= ~(1L << position);
+        }
+    }
+}
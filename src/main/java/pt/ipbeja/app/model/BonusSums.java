@@ -0,0 +1,116 @@
+package pt.ipbeja.app.model;
+
+/**
+ * BonusSums class.
+ * Keeps, for each direction, the running sum of the bonuses along every lane of the grid
+ * (lines, columns and both diagonals), so the bonus of any segment is two reads and a subtraction.
+ * The sum kept for a cell includes the cell and every cell before it in its lane.
+ * The sums take 4 ints per cell, so they are only kept for boards of up to MAX_CELLS cells (at most 16 MB).
+ * Larger boards keep no sums: their segments are added up one cell at a time, in time proportional to the length
+ * of the segment instead of in constant time.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class BonusSums {
+    public static final int MAX_CELLS = 1_000_000; // Boards with more cells keep no sums and are not O(1)
+
+    private final LetterGrid grid; // Grid with the bonuses
+    private final int[][] sums; // Running sum of the bonuses of each cell, by direction and cell index, or null
+
+    /**
+     * Constructor for BonusSums.
+     * Computes the sums of a finished grid.
+     *
+     * @param grid the grid
+     */
+    public BonusSums(LetterGrid grid) {
+        this.grid = grid;
+        if ((long) grid.nLines() * grid.nCols() > MAX_CELLS) {
+            this.sums = null;
+            return;
+        }
+        this.sums = new int[Direction.values().length][];
+        for (Direction direction : Direction.values()) {
+            int[] laneSums = new int[grid.nLines() * grid.nCols()];
+            for (int line = 0; line < grid.nLines(); line++) { // Cells before each cell in its lane come first
+                for (int col = 0; col < grid.nCols(); col++) {
+                    int before = previous(line, col, direction);
+                    laneSums[grid.index(line, col)] = grid.bonusAt(line, col) + ((before < 0) ? 0 : laneSums[before]);
+                }
+            }
+            sums[direction.ordinal()] = laneSums;
+        }
+    }
+
+    /**
+     * Gets the index of the cell before a cell in its lane.
+     *
+     * @param line      the line of the cell
+     * @param col       the column of the cell
+     * @param direction the direction of the lane
+     * @return the index of the previous cell, or -1 if the cell is the first of its lane
+     */
+    private int previous(int line, int col, Direction direction) {
+        int previousLine = line - direction.lineStep();
+        int previousCol = col - direction.colStep();
+        if (previousLine < 0 || previousCol < 0 || previousCol >= grid.nCols()) {
+            return -1;
+        }
+        return grid.index(previousLine, previousCol);
+    }
+
+    /**
+     * Gets the sum of the bonuses of a segment of the grid.
+     *
+     * @param line      the line of the first cell
+     * @param col       the column of the first cell
+     * @param direction the direction of the segment
+     * @param length    the number of cells
+     * @return the sum of the bonuses
+     */
+    public int sum(int line, int col, Direction direction, int length) {
+        int lastLine = line + (length - 1) * direction.lineStep();
+        int lastCol = col + (length - 1) * direction.colStep();
+        if (sums == null || length < 1 || !isInside(line, col) || !isInside(lastLine, lastCol)) {
+            int sum = 0;
+            for (int i = 0; i < length; i++) {
+                sum += grid.bonusAt(line + i * direction.lineStep(), col + i * direction.colStep());
+            }
+            return sum;
+        }
+        int[] laneSums = sums[direction.ordinal()];
+        return laneSums[grid.index(lastLine, lastCol)] - laneSums[grid.index(line, col)] + grid.bonusAt(line, col);
+    }
+
+    /**
+     * Updates the sums after the bonus of a cell changed, in every cell after it in each of its lanes.
+     *
+     * @param line     the line of the cell
+     * @param col      the column of the cell
+     * @param oldBonus the bonus before the change
+     */
+    public void update(int line, int col, int oldBonus) {
+        int delta = grid.bonusAt(line, col) - oldBonus;
+        if (sums == null || delta == 0) {
+            return;
+        }
+        for (Direction direction : Direction.values()) {
+            int[] laneSums = sums[direction.ordinal()];
+            for (int l = line, c = col; isInside(l, c); l += direction.lineStep(), c += direction.colStep()) {
+                laneSums[grid.index(l, c)] += delta;
+            }
+        }
+    }
+
+    /**
+     * Checks if a cell is inside the grid.
+     *
+     * @param line the line
+     * @param col  the column
+     * @return true if the cell is inside the grid, false otherwise
+     */
+    private boolean isInside(int line, int col) {
+        return line >= 0 && line < grid.nLines() && col >= 0 && col < grid.nCols();
+    }
+}
@@ -0,0 +1,71 @@
+package pt.ipbeja.app.model;
+
+import java.util.List;
+
+/**
+ * Direction enum.
+ * Represents the directions in which a word can be placed on the board.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public enum Direction {
+    HORIZONTAL(0, 1), // →
+    VERTICAL(1, 0), // ↓
+    DIAGONAL_RIGHT(1, 1), // ↘
+    DIAGONAL_LEFT(1, -1); // ↙
+
+    private final int lineStep; // Line increment from one letter to the next
+    private final int colStep; // Column increment from one letter to the next
+
+    /**
+     * Constructor for Direction.
+     *
+     * @param lineStep the line increment from one letter to the next
+     * @param colStep  the column increment from one letter to the next
+     */
+    Direction(int lineStep, int colStep) {
+        this.lineStep = lineStep;
+        this.colStep = colStep;
+    }
+
+    /**
+     * Gets the line increment from one letter to the next.
+     *
+     * @return the line increment
+     */
+    public int lineStep() {
+        return lineStep;
+    }
+
+    /**
+     * Gets the column increment from one letter to the next.
+     *
+     * @return the column increment
+     */
+    public int colStep() {
+        return colStep;
+    }
+
+    /**
+     * Checks if the direction is diagonal.
+     *
+     * @return true if the direction is diagonal, false otherwise
+     */
+    public boolean isDiagonal() {
+        return lineStep != 0 && colStep != 0;
+    }
+
+    /**
+     * Gets the directions allowed in a game.
+     *
+     * @param withDiagonals whether diagonals are allowed
+     * @return the allowed directions
+     */
+    public static List<Direction> forGame(boolean withDiagonals) {
+        if (withDiagonals) {
+            return List.of(values());
+        }
+        return List.of(HORIZONTAL, VERTICAL);
+    }
+}
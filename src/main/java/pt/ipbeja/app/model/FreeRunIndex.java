@@ -0,0 +1,166 @@
+package pt.ipbeja.app.model;
+
+import java.util.List;
+
+/**
+ * FreeRunIndex class.
+ * Keeps, for each cell and direction, the number of empty cells in a row starting at that cell,
+ * so checking if a word fits in a slot is a single array read.
+ * Runs are capped at the length of the longest word, which bounds the cells updated when a cell changes.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class FreeRunIndex implements SlotIndex {
+    private final int nLines; // Number of lines of the grid
+    private final int nCols; // Number of columns of the grid
+    private final List<Direction> directions; // Directions kept in the index
+    private final int cap; // Maximum run length stored
+    private final short[][] runs; // Run length per direction, indexed by line * nCols + col
+
+    /**
+     * Constructor for FreeRunIndex.
+     * Builds the index from the cells already filled in the grid.
+     *
+     * @param grid       the grid to index
+     * @param directions the directions to keep in the index
+     * @param cap        the maximum run length to store (the length of the longest word)
+     */
+    public FreeRunIndex(LetterGrid grid, List<Direction> directions, int cap) {
+        this.nLines = grid.nLines();
+        this.nCols = grid.nCols();
+        this.directions = directions;
+        this.cap = Math.max(1, Math.min(cap, Short.MAX_VALUE));
+        this.runs = new short[Direction.values().length][];
+        for (Direction direction : directions) {
+            runs[direction.ordinal()] = buildRuns(grid, direction);
+        }
+    }
+
+    /**
+     * Builds the runs of a direction, visiting each cell after the next cell in that direction.
+     *
+     * @param grid      the grid to index
+     * @param direction the direction
+     * @return the runs of the direction
+     */
+    private short[] buildRuns(LetterGrid grid, Direction direction) {
+        short[] dirRuns = new short[nLines * nCols];
+        for (int line = nLines - 1; line >= 0; line--) {
+            for (int i = 0; i < nCols; i++) {
+                int col = (direction.colStep() > 0) ? nCols - 1 - i : i;
+                if (grid.isEmpty(line, col)) {
+                    dirRuns[line * nCols + col] = (short) Math.min(cap, 1 + runAt(dirRuns, line + direction.lineStep(), col + direction.colStep()));
+                }
+            }
+        }
+        return dirRuns;
+    }
+
+    /**
+     * Checks if a word fits in a slot, that is, if all its cells are empty and inside the grid.
+     *
+     * @param line       the line of the first letter
+     * @param col        the column of the first letter
+     * @param direction  the direction of the word
+     * @param wordLength the length of the word
+     * @return true if the word fits, false otherwise
+     */
+    @Override
+    public boolean fits(int line, int col, Direction direction, int wordLength) {
+        return runs[direction.ordinal()][line * nCols + col] >= wordLength;
+    }
+
+    /**
+     * Counts the slots where a word of the given length fits, in all the indexed directions.
+     *
+     * @param wordLength the length of the word
+     * @return the number of slots
+     */
+    @Override
+    public long countFits(int wordLength) {
+        long count = 0;
+        for (Direction direction : directions) {
+            for (short run : runs[direction.ordinal()]) {
+                if (run >= wordLength) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Updates the index after a cell is filled.
+     * Only the cells before it in each direction, up to the cap or the previous filled cell, change.
+     *
+     * @param line the line of the cell
+     * @param col  the column of the cell
+     */
+    @Override
+    public void occupy(int line, int col) {
+        for (Direction direction : directions) {
+            short[] dirRuns = runs[direction.ordinal()];
+            dirRuns[line * nCols + col] = 0;
+            for (int k = 1; k < cap; k++) {
+                int prevLine = line - k * direction.lineStep();
+                int prevCol = col - k * direction.colStep();
+                if (!inside(prevLine, prevCol) || dirRuns[prevLine * nCols + prevCol] == 0) {
+                    break;
+                }
+                dirRuns[prevLine * nCols + prevCol] = (short) k;
+            }
+        }
+    }
+
+    /**
+     * Updates the index after a cell is emptied.
+     * The cells before it in each direction are updated until their run does not change.
+     *
+     * @param line the line of the cell
+     * @param col  the column of the cell
+     */
+    @Override
+    public void release(int line, int col) {
+        for (Direction direction : directions) {
+            short[] dirRuns = runs[direction.ordinal()];
+            int run = Math.min(cap, 1 + runAt(dirRuns, line + direction.lineStep(), col + direction.colStep()));
+            dirRuns[line * nCols + col] = (short) run;
+            for (int k = 1; ; k++) {
+                int prevLine = line - k * direction.lineStep();
+                int prevCol = col - k * direction.colStep();
+                if (!inside(prevLine, prevCol) || dirRuns[prevLine * nCols + prevCol] == 0) {
+                    break;
+                }
+                run = Math.min(cap, run + 1);
+                if (dirRuns[prevLine * nCols + prevCol] == run) {
+                    break;
+                }
+                dirRuns[prevLine * nCols + prevCol] = (short) run;
+            }
+        }
+    }
+
+    /**
+     * Gets the run of a cell, or 0 if the cell is outside the grid.
+     *
+     * @param dirRuns the runs of a direction
+     * @param line    the line of the cell
+     * @param col     the column of the cell
+     * @return the run of the cell
+     */
+    private int runAt(short[] dirRuns, int line, int col) {
+        return inside(line, col) ? dirRuns[line * nCols + col] : 0;
+    }
+
+    /**
+     * Checks if a cell is inside the grid.
+     *
+     * @param line the line of the cell
+     * @param col  the column of the cell
+     * @return true if the cell is inside the grid, false otherwise
+     */
+    private boolean inside(int line, int col) {
+        return line >= 0 && line < nLines && col >= 0 && col < nCols;
+    }
+}
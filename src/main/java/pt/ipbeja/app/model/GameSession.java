@@ -0,0 +1,126 @@
+package pt.ipbeja.app.model;
+
+/**
+ * GameSession class.
+ * One game played through the game server, backed by its own headless model.
+ * A session can be used by several request threads, so every access to the model is synchronized on the session.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class GameSession implements WSView {
+    private final String id; // Id of the session, used in the requests
+    private final WSModel model; // Model of the game
+    private volatile long lastAccess; // Time of the last request, used to evict idle sessions
+    private String gameOverMessage; // Score message given by the model when the game ended, or null
+
+    /**
+     * Constructor for GameSession.
+     * The session registers itself as the view of the model, to know when the game ends.
+     *
+     * @param id    the id of the session
+     * @param model the model of the game
+     * @param now   the current time, in milliseconds
+     */
+    public GameSession(String id, WSModel model, long now) {
+        this.id = id;
+        this.model = model;
+        this.lastAccess = now;
+        model.registerView(this);
+    }
+
+    /**
+     * Gets the id of the session.
+     *
+     * @return the id
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Gets the time of the last request.
+     *
+     * @return the time, in milliseconds
+     */
+    public long lastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Marks the session as used.
+     *
+     * @param now the current time, in milliseconds
+     */
+    public void touch(long now) {
+        lastAccess = now;
+    }
+
+    /**
+     * Checks a selection from its first to its last letter.
+     *
+     * @param first the position of the first letter
+     * @param last  the position of the last letter
+     * @return true if a word was found, false otherwise (also when the game already ended)
+     */
+    public synchronized boolean select(Position first, Position last) {
+        if (gameOverMessage != null || !model.isInside(first) || !model.isInside(last)) {
+            return false;
+        }
+        return model.isFirstAndLastOfWord(first, last);
+    }
+
+    /**
+     * Gets the total score of the game.
+     *
+     * @return the score
+     */
+    public synchronized int score() {
+        return model.getTotalScore();
+    }
+
+    /**
+     * Checks if the game ended.
+     *
+     * @return true if all the words were found, false otherwise
+     */
+    public synchronized boolean isOver() {
+        return gameOverMessage != null;
+    }
+
+    /**
+     * Gets the state of the game as text: the board, the words still to be found and the score.
+     *
+     * @return the text
+     */
+    public synchronized String stateText() {
+        StringBuilder text = new StringBuilder(model.boardText());
+        if (gameOverMessage != null) {
+            text.append(gameOverMessage).append('\n');
+        } else {
+            text.append(model.getScoreMessage()).append('\n');
+        }
+        text.append("Pontuação: ").append(model.getTotalScore()).append('\n');
+        return text.toString();
+    }
+
+    /**
+     * Gets the words to be found.
+     *
+     * @return the list of words
+     */
+    public synchronized String wordsText() {
+        return model.generateWordsList();
+    }
+
+    /**
+     * Receives the message of the model when the game ends.
+     * It is called from select, so the lock of the session is already held.
+     *
+     * @param messageToUI the message with the score
+     */
+    @Override
+    public void update(MessageToUI messageToUI) {
+        gameOverMessage = messageToUI.message();
+    }
+}
@@ -0,0 +1,404 @@
+package pt.ipbeja.app.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Leaderboard class.
+ * Answers top-K and percentile queries over the score journal, for all the games or the games of one word list.
+ * The records of the journal are copied into a binary index file next to it (fixed size entries after a header
+ * with the number of entries and how much of the journal they cover), so opening the leaderboard reads the index
+ * in bulk and only parses the lines added to the journal since the last refresh.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class Leaderboard {
+    public static final String INDEX_SUFFIX = ".idx"; // Added to the name of the journal to get the index file
+    private static final int MAGIC = ('W' << 24) | ('S' << 16) | ('L' << 8) | 'B'; // First four bytes of the index
+    private static final int VERSION = 1; // Version of the index format
+    private static final int HEADER_SIZE = 24; // Magic, version, number of entries and bytes of the journal indexed
+    private static final int ENTRY_SIZE = 36; // Timestamp, score, words found, total words, duration and word list
+    private static final int WINDOW_SIZE = 1 << 24; // Bytes of the journal mapped at a time
+
+    private final Path journalFile; // Score journal
+    private final Path indexFile; // Index of the journal
+    private int size = 0; // Number of games
+    private long[] timestamps = new long[64]; // Time of each game, by id (the order in the journal)
+    private int[] scores = new int[64]; // Score of each game
+    private int[] wordsFound = new int[64]; // Words found in each game
+    private int[] totalWords = new int[64]; // Words of each game
+    private long[] durations = new long[64]; // Duration of each game, in milliseconds
+    private long[] wordListIds = new long[64]; // Word list of each game
+    private long journalOffset = 0; // Bytes of the journal already indexed
+    private final ScorePartition allGames = new ScorePartition(); // Queries over all the games
+    private final Map<Long, ScorePartition> wordLists = new HashMap<>(); // Queries over the games of each word list
+    private byte[] lineBytes = new byte[256]; // Bytes of the line being read, reused for every line
+
+    /**
+     * Constructor for Leaderboard.
+     * Loads the index file, if there is one, and indexes the records added to the journal since then.
+     *
+     * @param journalFile the score journal
+     * @throws IOException if the journal or the index cannot be read or the index cannot be written
+     */
+    public Leaderboard(Path journalFile) throws IOException {
+        this.journalFile = journalFile;
+        this.indexFile = journalFile.resolveSibling(journalFile.getFileName() + INDEX_SUFFIX);
+        loadIndex();
+        refresh();
+    }
+
+    /**
+     * Reads the entries of the index file into memory.
+     * An index that does not match the journal (missing, of another version or longer than the journal) is discarded.
+     *
+     * @throws IOException if the index cannot be read
+     */
+    private void loadIndex() throws IOException {
+        if (!indexFile.toFile().exists()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return;
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            int count = (header.getInt() == MAGIC && header.getInt() == VERSION) ? (int) header.getLong() : -1;
+            long offset = header.getLong();
+            long journalSize = journalFile.toFile().exists() ? journalFile.toFile().length() : 0;
+            if (count < 0 || offset > journalSize || channel.size() < HEADER_SIZE + (long) count * ENTRY_SIZE) {
+                return;
+            }
+            ByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) count * ENTRY_SIZE);
+            int[] ids = new int[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = add(entries.getLong(), entries.getInt(), entries.getInt(), entries.getInt(),
+                        entries.getLong(), entries.getLong());
+            }
+            addToPartitions(ids);
+            journalOffset = offset;
+        }
+    }
+
+    /**
+     * Indexes the records added to the journal since the last refresh, in memory and in the index file.
+     * Only complete lines are read; lines that are not records (from older versions of the game) are skipped.
+     * The journal is mapped in windows of at most WINDOW_SIZE bytes and read one line at a time,
+     * so memory does not depend on how much of the journal is new.
+     *
+     * @throws IOException if the journal cannot be read or the index cannot be written
+     */
+    public synchronized void refresh() throws IOException {
+        if (!journalFile.toFile().exists()) {
+            return;
+        }
+        int first = size;
+        long end;
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            long journalSize = channel.size();
+            if (journalSize < journalOffset) { // The journal was replaced: index it again
+                clear();
+                first = 0;
+            }
+            end = journalOffset;
+            boolean skippingLine = false; // Whether the current line is longer than a window and is being skipped
+            while (end < journalSize) {
+                int length = (int) Math.min(WINDOW_SIZE, journalSize - end);
+                ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, end, length);
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (window.get(i) == '\n') {
+                        if (!skippingLine) {
+                            readLine(window, lineStart, i);
+                        }
+                        skippingLine = false;
+                        lineStart = i + 1;
+                    }
+                }
+                if (end + length == journalSize) { // The rest is a line still being written
+                    end += lineStart;
+                    break;
+                }
+                skippingLine = skippingLine || lineStart == 0;
+                end += (lineStart == 0) ? length : lineStart;
+            }
+            if (end == journalOffset) {
+                return;
+            }
+        }
+        int[] ids = new int[size - first];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = first + i;
+        }
+        addToPartitions(ids);
+        writeIndex(first, end);
+        journalOffset = end;
+    }
+
+    /**
+     * Reads a line of the journal, adding its game if the line is a record.
+     *
+     * @param window the mapped window of the journal
+     * @param from   the first byte of the line
+     * @param to     the end of the line (exclusive)
+     */
+    private void readLine(ByteBuffer window, int from, int to) {
+        int length = to - from;
+        if (length > lineBytes.length) {
+            lineBytes = new byte[Math.max(length, 2 * lineBytes.length)];
+        }
+        window.get(from, lineBytes, 0, length);
+        try {
+            ScoreRecord record = ScoreRecord.parse(new String(lineBytes, 0, length, StandardCharsets.UTF_8));
+            add(record.timestamp(), record.score(), record.wordsFound(), record.totalWords(),
+                    record.durationMillis(), record.wordListId());
+        } catch (IllegalArgumentException e) {
+            // Not a record: skipped
+        }
+    }
+
+    /**
+     * Appends the new entries to the index file and then updates its header,
+     * so an interrupted write leaves the previous index valid.
+     *
+     * @param first  the id of the first new game
+     * @param offset the bytes of the journal indexed
+     * @throws IOException if the index cannot be written
+     */
+    private void writeIndex(int first, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ByteBuffer entries = ByteBuffer.allocate((size - first) * ENTRY_SIZE);
+            for (int id = first; id < size; id++) {
+                entries.putLong(timestamps[id]).putInt(scores[id]).putInt(wordsFound[id]).putInt(totalWords[id])
+                        .putLong(durations[id]).putLong(wordListIds[id]);
+            }
+            entries.flip();
+            long position = HEADER_SIZE + (long) first * ENTRY_SIZE;
+            while (entries.hasRemaining()) {
+                position += channel.write(entries, position);
+            }
+            channel.truncate(position);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(size).putLong(offset).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    /**
+     * Adds a game to the arrays, growing them when needed.
+     *
+     * @param timestamp  the time the game ended
+     * @param score      the total score
+     * @param found      the number of words found
+     * @param total      the number of words of the game
+     * @param duration   the duration of the game, in milliseconds
+     * @param wordListId the fingerprint of the words of the game
+     * @return the id of the game
+     */
+    private int add(long timestamp, int score, int found, int total, long duration, long wordListId) {
+        if (size == timestamps.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            wordsFound = Arrays.copyOf(wordsFound, capacity);
+            totalWords = Arrays.copyOf(totalWords, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            wordListIds = Arrays.copyOf(wordListIds, capacity);
+        }
+        timestamps[size] = timestamp;
+        scores[size] = score;
+        wordsFound[size] = found;
+        totalWords[size] = total;
+        durations[size] = duration;
+        wordListIds[size] = wordListId;
+        return size++;
+    }
+
+    /**
+     * Adds new games to the partition of all the games and to the partitions of their word lists.
+     *
+     * @param ids the ids of the games
+     */
+    private void addToPartitions(int[] ids) {
+        sortByTime(ids);
+        addToPartition(allGames, ids);
+        Map<Long, int[]> byWordList = new HashMap<>();
+        Map<Long, Integer> filled = new HashMap<>();
+        for (int id : ids) {
+            filled.merge(wordListIds[id], 1, Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : filled.entrySet()) {
+            byWordList.put(entry.getKey(), new int[entry.getValue()]);
+            entry.setValue(0);
+        }
+        for (int id : ids) { // Still in time order inside each word list
+            long wordListId = wordListIds[id];
+            int position = filled.get(wordListId);
+            byWordList.get(wordListId)[position] = id;
+            filled.put(wordListId, position + 1);
+        }
+        for (Map.Entry<Long, int[]> entry : byWordList.entrySet()) {
+            addToPartition(wordLists.computeIfAbsent(entry.getKey(), key -> new ScorePartition()), entry.getValue());
+        }
+    }
+
+    /**
+     * Sorts games by time (bottom-up merge sort, which keeps games with the same time in journal order).
+     *
+     * @param ids the ids of the games
+     */
+    private void sortByTime(int[] ids) {
+        int n = ids.length;
+        int[] from = ids;
+        int[] to = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + 2 * width, n);
+                int a = lo;
+                int b = mid;
+                for (int k = lo; k < hi; k++) {
+                    to[k] = (b == hi || (a < mid && timestamps[from[a]] <= timestamps[from[b]])) ? from[a++] : from[b++];
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != ids) {
+            System.arraycopy(from, 0, ids, 0, n);
+        }
+    }
+
+    /**
+     * Adds new games, sorted by time, to a partition.
+     *
+     * @param partition the partition
+     * @param ids       the ids of the games
+     */
+    private void addToPartition(ScorePartition partition, int[] ids) {
+        long[] newTimestamps = new long[ids.length];
+        int[] newScores = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            newTimestamps[i] = timestamps[ids[i]];
+            newScores[i] = scores[ids[i]];
+        }
+        partition.addAll(ids, newTimestamps, newScores, scores);
+    }
+
+    /**
+     * Forgets every game, so the journal can be indexed again from the start.
+     */
+    private void clear() {
+        size = 0;
+        journalOffset = 0;
+        allGames.clear();
+        wordLists.clear();
+    }
+
+    /**
+     * Gets the number of games.
+     *
+     * @return the number of games
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the games with the highest scores in a time range.
+     *
+     * @param k    the number of games
+     * @param from the start of the time range, in milliseconds since the epoch (inclusive)
+     * @param to   the end of the time range, in milliseconds since the epoch (exclusive)
+     * @return the records of the games, from the highest score
+     */
+    public synchronized List<ScoreRecord> top(int k, long from, long to) {
+        return records(allGames.top(k, from, to));
+    }
+
+    /**
+     * Gets the games of a word list with the highest scores in a time range.
+     *
+     * @param k          the number of games
+     * @param from       the start of the time range, in milliseconds since the epoch (inclusive)
+     * @param to         the end of the time range, in milliseconds since the epoch (exclusive)
+     * @param wordListId the fingerprint of the word list
+     * @return the records of the games, from the highest score
+     */
+    public synchronized List<ScoreRecord> top(int k, long from, long to, long wordListId) {
+        ScorePartition partition = wordLists.get(wordListId);
+        return (partition == null) ? List.of() : records(partition.top(k, from, to));
+    }
+
+    /**
+     * Gets the percentage of games with a score up to the given one.
+     *
+     * @param score the score
+     * @return the percentile of the score (0 to 100), or 0 if there are no games
+     */
+    public synchronized double percentile(int score) {
+        return percentile(allGames, score);
+    }
+
+    /**
+     * Gets the percentage of games of a word list with a score up to the given one.
+     *
+     * @param score      the score
+     * @param wordListId the fingerprint of the word list
+     * @return the percentile of the score (0 to 100), or 0 if there are no games
+     */
+    public synchronized double percentile(int score, long wordListId) {
+        ScorePartition partition = wordLists.get(wordListId);
+        return (partition == null) ? 0 : percentile(partition, score);
+    }
+
+    /**
+     * Gets the percentage of games of a partition with a score up to the given one.
+     *
+     * @param partition the partition
+     * @param score     the score
+     * @return the percentile of the score (0 to 100), or 0 if there are no games
+     */
+    private static double percentile(ScorePartition partition, int score) {
+        int games = partition.size();
+        return (games == 0) ? 0 : 100.0 * partition.countAtMost(score) / games;
+    }
+
+    /**
+     * Gets the lowest score reached or beaten by the given percentage of the games (for example, 50 gives the median).
+     *
+     * @param percentile the percentage (0 to 100)
+     * @return the score, or 0 if there are no games
+     */
+    public synchronized int scoreAtPercentile(double percentile) {
+        int games = allGames.size();
+        if (games == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * games);
+        return allGames.scoreAtRank(Math.max(1, Math.min(games, rank)));
+    }
+
+    /**
+     * Creates the records of the given games.
+     *
+     * @param ids the ids of the games
+     * @return the records
+     */
+    private List<ScoreRecord> records(int[] ids) {
+        List<ScoreRecord> records = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            records.add(new ScoreRecord(timestamps[id], scores[id], wordsFound[id], totalWords[id], durations[id], wordListIds[id]));
+        }
+        return records;
+    }
+}
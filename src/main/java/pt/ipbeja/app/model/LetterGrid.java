@@ -0,0 +1,161 @@
+package pt.ipbeja.app.model;
+
+import java.util.Objects;
+
+/**
+ * LetterGrid class.
+ * Stores the letters and bonuses of the board in flat primitive arrays (line by line),
+ * so the board does not need one object per cell.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class LetterGrid {
+    public static final char EMPTY = '\0'; // Letter of a cell that was not filled yet
+
+    private final int nLines; // Number of lines of the grid
+    private final int nCols; // Number of columns of the grid
+    private final char[] letters; // Letters of the grid, indexed by line * nCols + col
+    private final byte[] bonuses; // Bonus of each cell, indexed like the letters
+
+    /**
+     * Constructor for LetterGrid.
+     * Initializes the grid with empty cells.
+     *
+     * @param nLines the number of lines
+     * @param nCols  the number of columns
+     */
+    public LetterGrid(int nLines, int nCols) {
+        this.nLines = nLines;
+        this.nCols = nCols;
+        this.letters = new char[nLines * nCols];
+        this.bonuses = new byte[nLines * nCols];
+    }
+
+    /**
+     * Constructor for LetterGrid with cells already filled, used when a saved board is loaded.
+     *
+     * @param nLines  the number of lines
+     * @param nCols   the number of columns
+     * @param letters the letters, indexed by line * nCols + col
+     * @param bonuses the bonuses, indexed like the letters
+     */
+    LetterGrid(int nLines, int nCols, char[] letters, byte[] bonuses) {
+        this.nLines = nLines;
+        this.nCols = nCols;
+        this.letters = letters;
+        this.bonuses = bonuses;
+    }
+
+    /**
+     * Gets the number of lines in the grid.
+     *
+     * @return the number of lines
+     */
+    public int nLines() {
+        return nLines;
+    }
+
+    /**
+     * Gets the number of columns in the grid.
+     *
+     * @return the number of columns
+     */
+    public int nCols() {
+        return nCols;
+    }
+
+    /**
+     * Gets the index of a cell in the flat arrays.
+     * The column is checked, so a column outside the grid fails instead of reading a cell of the next line;
+     * a line outside the grid already gives an index outside the arrays.
+     *
+     * @param line the line
+     * @param col  the column
+     * @return the index of the cell
+     * @throws IndexOutOfBoundsException if the column is outside the grid
+     */
+    public int index(int line, int col) {
+        return line * nCols + Objects.checkIndex(col, nCols);
+    }
+
+    /**
+     * Gets the letter in a cell.
+     *
+     * @param line the line
+     * @param col  the column
+     * @return the letter, or EMPTY if the cell was not filled yet
+     */
+    public char letterAt(int line, int col) {
+        return letters[index(line, col)];
+    }
+
+    /**
+     * Gets the bonus of a cell.
+     *
+     * @param line the line
+     * @param col  the column
+     * @return the bonus of the cell (0 for regular cells)
+     */
+    public int bonusAt(int line, int col) {
+        return bonuses[index(line, col)];
+    }
+
+    /**
+     * Checks if a cell was not filled yet.
+     *
+     * @param line the line
+     * @param col  the column
+     * @return true if the cell is empty, false otherwise
+     */
+    public boolean isEmpty(int line, int col) {
+        return letters[index(line, col)] == EMPTY;
+    }
+
+    /**
+     * Sets the letter and bonus of a cell.
+     *
+     * @param line   the line
+     * @param col    the column
+     * @param letter the letter
+     * @param bonus  the bonus (0 for regular cells)
+     */
+    public void set(int line, int col, char letter, int bonus) {
+        if (bonus < 0 || bonus > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Bónus inválido: " + bonus);
+        }
+        int index = index(line, col);
+        letters[index] = letter;
+        bonuses[index] = (byte) bonus;
+    }
+
+    /**
+     * Empties a cell.
+     *
+     * @param line the line
+     * @param col  the column
+     */
+    public void clear(int line, int col) {
+        int index = index(line, col);
+        letters[index] = EMPTY;
+        bonuses[index] = 0;
+    }
+
+    /**
+     * Gets the array of letters, so a board can be saved without copying cell by cell.
+     *
+     * @return the letters, indexed by line * nCols + col
+     */
+    char[] letterArray() {
+        return letters;
+    }
+
+    /**
+     * Gets the array of bonuses, so a board can be saved without copying cell by cell.
+     *
+     * @return the bonuses, indexed like the letters
+     */
+    byte[] bonusArray() {
+        return bonuses;
+    }
+}
@@ -9,6 +9,20 @@ package pt.ipbeja.app.model;
  */
 public record Position(int line, int col) {
 
+    /**
+     * Gets the label of a column (A to Z, then AA, AB, ...), so boards wider than 26 columns stay readable.
+     *
+     * @param col the column
+     * @return the label of the column
+     */
+    public static String columnLabel(int col) {
+        StringBuilder label = new StringBuilder();
+        for (int n = col + 1; n > 0; n = (n - 1) / 26) {
+            label.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return label.toString();
+    }
+
     /**
      * Returns a string representation of the position.
      *
@@ -0,0 +1,251 @@
+package pt.ipbeja.app.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PuzzleFile class.
+ * Reads a pack of puzzles saved in the binary puzzle format by PuzzleFileWriter.
+ * Each puzzle is read by mapping only its part of the file into memory and copying the letters and
+ * bonuses into the board in bulk, so loading a puzzle does not depend on the size of the pack.
+ * The flags of all the puzzles are read together the first time they are needed, mapping the pack once.
+ * A damaged file is reported with an IOException, never with the exception of the buffer that failed.
+ *
+ * Format (big endian), version 1:
+ * <pre>
+ * header:  "WSPZ", version (short), reserved (short)
+ * puzzle:  nLines (int), nCols (int), flags (int, bit 0 = diagonals), seed (long),
+ *          number of words (int), number of placements (int),
+ *          letters (nLines * nCols chars), bonuses (nLines * nCols bytes),
+ *          words in the order of their ids (length as short, then the chars),
+ *          placements (word id (int), line (int), column (int), direction (byte))
+ * footer:  offset of each puzzle (long), number of puzzles (int), offset of the footer (long)
+ * </pre>
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class PuzzleFile implements Closeable {
+    public static final int MAGIC = ('W' << 24) | ('S' << 16) | ('P' << 8) | 'Z'; // First four bytes of every puzzle file
+    public static final short VERSION = 1; // Version of the format written
+    public static final int HEADER_SIZE = 8; // Bytes of the header
+    public static final int TRAILER_SIZE = 12; // Bytes of the number of puzzles and the offset of the footer
+    public static final int FLAG_DIAGONALS = 1; // Flag of the puzzles with diagonals
+    private static final int PUZZLE_HEADER_SIZE = 28; // Bytes of the sizes, flags, seed and counts of a puzzle
+    private static final int PLACEMENT_SIZE = 13; // Bytes of each placement
+
+    private final FileChannel channel; // Channel of the file, kept open to map the puzzles
+    private final long[] offsets; // Offset of each puzzle, plus the offset of the footer at the end
+    private int[] flags; // Flags of each puzzle, or null until they are first needed
+
+    /**
+     * Constructor for PuzzleFile.
+     * Reads the header and the footer with the offsets of the puzzles.
+     *
+     * @param file the puzzle file
+     * @throws IOException if the file cannot be read or is not a puzzle file
+     */
+    public PuzzleFile(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                throw new IOException("Ficheiro de puzzles inválido: " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Ficheiro de puzzles inválido: " + file);
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Versão do ficheiro de puzzles não suportada: " + version);
+            }
+            ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - TRAILER_SIZE, TRAILER_SIZE);
+            int count = trailer.getInt();
+            long footer = trailer.getLong();
+            if (count < 0 || footer < HEADER_SIZE || footer + 8L * count != size - TRAILER_SIZE) {
+                throw new IOException("Ficheiro de puzzles inválido: " + file);
+            }
+            this.offsets = new long[count + 1];
+            channel.map(FileChannel.MapMode.READ_ONLY, footer, 8L * count).asLongBuffer().get(offsets, 0, count);
+            offsets[count] = footer;
+            long previous = HEADER_SIZE;
+            for (int i = 0; i < count; i++) { // Each puzzle starts after the previous one and ends before the footer
+                if (offsets[i] < previous || offsets[i + 1] - offsets[i] < PUZZLE_HEADER_SIZE) {
+                    throw new IOException("Ficheiro de puzzles inválido: " + file);
+                }
+                previous = offsets[i] + PUZZLE_HEADER_SIZE;
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of puzzles in the file.
+     *
+     * @return the number of puzzles
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Checks if a puzzle allows diagonals, without loading it.
+     *
+     * @param index the index of the puzzle
+     * @return true if the puzzle allows diagonals, false otherwise
+     * @throws IOException if the puzzle cannot be read
+     */
+    public boolean hasDiagonals(int index) throws IOException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Puzzle inexistente: " + index);
+        }
+        if (flags == null) {
+            flags = readFlags();
+        }
+        return (flags[index] & FLAG_DIAGONALS) != 0;
+    }
+
+    /**
+     * Reads the flags of all the puzzles, mapping the puzzles once
+     * (or in a few parts, if the pack is bigger than a single mapping allows).
+     *
+     * @return the flags of each puzzle
+     * @throws IOException if the file cannot be mapped
+     */
+    private int[] readFlags() throws IOException {
+        int[] read = new int[size()];
+        ByteBuffer buffer = null;
+        long start = 0;
+        for (int i = 0; i < read.length; i++) {
+            long position = offsets[i] + 8;
+            if (buffer == null || position + 4 > start + buffer.capacity()) {
+                start = offsets[i];
+                long length = Math.min(Integer.MAX_VALUE, offsets[read.length] - start);
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+            read[i] = buffer.getInt((int) (position - start));
+        }
+        return read;
+    }
+
+    /**
+     * Loads a puzzle.
+     *
+     * @param index the index of the puzzle
+     * @return the model of the puzzle, ready to be played
+     * @throws IOException if the puzzle cannot be read or is damaged
+     */
+    public WSModel puzzle(int index) throws IOException {
+        ByteBuffer buffer = map(index);
+        try {
+            return decode(buffer, index);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Puzzle inválido: " + index, e);
+        }
+    }
+
+    /**
+     * Decodes a mapped puzzle.
+     * A puzzle that ends too early or has a value out of range fails with the exception of the buffer or
+     * of the board, which puzzle turns into an IOException.
+     *
+     * @param buffer the mapped puzzle
+     * @param index  the index of the puzzle
+     * @return the model of the puzzle
+     * @throws IOException if the puzzle is damaged
+     */
+    private WSModel decode(ByteBuffer buffer, int index) throws IOException {
+        int nLines = buffer.getInt();
+        int nCols = buffer.getInt();
+        int flags = buffer.getInt();
+        long seed = buffer.getLong();
+        int wordCount = buffer.getInt();
+        int placementCount = buffer.getInt();
+        if (nLines < 1 || nLines > WSModel.MAX_BOARD_SIZE || nCols < 1 || nCols > WSModel.MAX_BOARD_SIZE
+                || 3L * nLines * nCols > buffer.remaining() // Letters and bonuses, checked before they are allocated
+                || wordCount < 0 || wordCount > buffer.remaining() / 2
+                || placementCount < 0 || placementCount > buffer.remaining() / PLACEMENT_SIZE) {
+            throw new IOException("Puzzle inválido: " + index);
+        }
+
+        int nCells = nLines * nCols;
+        char[] letters = new char[nCells];
+        byte[] bonuses = new byte[nCells];
+        buffer.asCharBuffer().get(letters);
+        buffer.position(buffer.position() + 2 * nCells);
+        buffer.get(bonuses);
+
+        List<String> words = new ArrayList<>(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            char[] word = new char[buffer.getShort() & 0xFFFF];
+            buffer.asCharBuffer().get(word);
+            buffer.position(buffer.position() + 2 * word.length);
+            words.add(new String(word));
+        }
+
+        Direction[] directions = Direction.values();
+        List<WordPlacement> placements = new ArrayList<>(placementCount);
+        for (int i = 0; i < placementCount; i++) {
+            int wordId = buffer.getInt();
+            int line = buffer.getInt();
+            int col = buffer.getInt();
+            int direction = buffer.get();
+            if (wordId < 0 || wordId >= wordCount || direction < 0 || direction >= directions.length) {
+                throw new IOException("Puzzle inválido: " + index);
+            }
+            WordPlacement placement = new WordPlacement(words.get(wordId), new Position(line, col), directions[direction]);
+            if (!isInside(placement.start(), nLines, nCols) || !isInside(placement.end(), nLines, nCols)) {
+                throw new IOException("Puzzle inválido: " + index);
+            }
+            placements.add(placement);
+        }
+        return new WSModel(new LetterGrid(nLines, nCols, letters, bonuses), words, placements,
+                (flags & FLAG_DIAGONALS) != 0, seed);
+    }
+
+    /**
+     * Checks if a position is inside a board.
+     *
+     * @param position the position
+     * @param nLines   the number of lines of the board
+     * @param nCols    the number of columns of the board
+     * @return true if the position is inside the board, false otherwise
+     */
+    private static boolean isInside(Position position, int nLines, int nCols) {
+        return position.line() >= 0 && position.line() < nLines && position.col() >= 0 && position.col() < nCols;
+    }
+
+    /**
+     * Maps the part of the file with a puzzle.
+     *
+     * @param index the index of the puzzle
+     * @return the mapped puzzle
+     * @throws IOException if the puzzle cannot be mapped
+     */
+    private ByteBuffer map(int index) throws IOException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Puzzle inexistente: " + index);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offsets[index], offsets[index + 1] - offsets[index]);
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,176 @@
+package pt.ipbeja.app.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PuzzleFileWriter class.
+ * Writes a pack of puzzles in the binary puzzle format described in PuzzleFile.
+ * The puzzles are appended one at a time through a FileChannel and the offsets are written in a footer
+ * when the file is closed, so the number of puzzles does not need to be known in advance.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class PuzzleFileWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024; // Bytes written to the channel at a time
+
+    private final FileChannel channel; // Channel of the file
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE); // Bytes waiting to be written
+    private long[] offsets = new long[16]; // Offset of each puzzle written
+    private int count = 0; // Number of puzzles written
+    private long position = 0; // Offset of the first byte in the buffer
+
+    /**
+     * Constructor for PuzzleFileWriter.
+     * Creates the file, or empties it if it exists, and writes the header.
+     *
+     * @param file the puzzle file
+     * @throws IOException if the file cannot be written
+     */
+    public PuzzleFileWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(PuzzleFile.MAGIC);
+        buffer.putShort(PuzzleFile.VERSION);
+        buffer.putShort((short) 0);
+    }
+
+    /**
+     * Saves the given puzzles in a file.
+     *
+     * @param models the puzzles
+     * @param file   the puzzle file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(List<WSModel> models, Path file) throws IOException {
+        try (PuzzleFileWriter writer = new PuzzleFileWriter(file)) {
+            for (WSModel model : models) {
+                writer.append(model);
+            }
+        }
+    }
+
+    /**
+     * Appends a puzzle to the file.
+     *
+     * @param model the model of the puzzle
+     * @throws IOException if the file cannot be written
+     */
+    public void append(WSModel model) throws IOException {
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        offsets[count++] = position + buffer.position();
+
+        LetterGrid grid = model.grid();
+        WordDictionary dictionary = model.dictionary();
+        List<WordPlacement> placements = model.getPlacements();
+        ensureSpace(32);
+        buffer.putInt(grid.nLines());
+        buffer.putInt(grid.nCols());
+        buffer.putInt(model.hasDiagonals() ? PuzzleFile.FLAG_DIAGONALS : 0);
+        buffer.putLong(model.getSeed());
+        buffer.putInt(dictionary.size());
+        buffer.putInt(placements.size());
+        putChars(grid.letterArray());
+        putBytes(grid.bonusArray());
+        for (String word : dictionary.words()) {
+            ensureSpace(2);
+            buffer.putShort((short) word.length());
+            putChars(word.toCharArray());
+        }
+        for (WordPlacement placement : placements) {
+            ensureSpace(13);
+            buffer.putInt(dictionary.idOf(placement.word()));
+            buffer.putInt(placement.start().line());
+            buffer.putInt(placement.start().col());
+            buffer.put((byte) placement.direction().ordinal());
+        }
+    }
+
+    /**
+     * Adds chars to the buffer, writing it to the channel whenever it fills up.
+     *
+     * @param chars the chars
+     * @throws IOException if the file cannot be written
+     */
+    private void putChars(char[] chars) throws IOException {
+        for (int from = 0; from < chars.length; ) {
+            ensureSpace(2);
+            int n = Math.min(chars.length - from, buffer.remaining() / 2);
+            buffer.asCharBuffer().put(chars, from, n);
+            buffer.position(buffer.position() + 2 * n);
+            from += n;
+        }
+    }
+
+    /**
+     * Adds bytes to the buffer, writing it to the channel whenever it fills up.
+     *
+     * @param bytes the bytes
+     * @throws IOException if the file cannot be written
+     */
+    private void putBytes(byte[] bytes) throws IOException {
+        for (int from = 0; from < bytes.length; ) {
+            ensureSpace(1);
+            int n = Math.min(bytes.length - from, buffer.remaining());
+            buffer.put(bytes, from, n);
+            from += n;
+        }
+    }
+
+    /**
+     * Writes the buffer to the channel if it has less than the given free space.
+     *
+     * @param bytes the free space needed
+     * @throws IOException if the file cannot be written
+     */
+    private void ensureSpace(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffer to the channel.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the footer with the offsets of the puzzles and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            long footer = position;
+            for (int i = 0; i < count; i++) {
+                ensureSpace(8);
+                buffer.putLong(offsets[i]);
+            }
+            ensureSpace(PuzzleFile.TRAILER_SIZE);
+            buffer.putInt(count);
+            buffer.putLong(footer);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package pt.ipbeja.app.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * ScoreJournal class.
+ * Appends the scores of the finished games to a file without blocking the thread that ends the game.
+ * The records are put in a queue and a single writer thread takes all the records waiting,
+ * writes them with one FileChannel write and then forces them to the disk according to the sync policy.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class ScoreJournal implements Closeable {
+    public static final String DEFAULT_FILE = "scores.txt"; // File of the default journal
+    public static final int MAX_BATCH = 1024; // Maximum number of records written at once
+    public static final long SYNC_INTERVAL_MILLIS = 1000; // Time between syncs with the INTERVAL policy
+
+    /**
+     * When the written records are forced to the disk.
+     */
+    public enum SyncPolicy {
+        NEVER, // Left to the operating system
+        INTERVAL, // At most once every SYNC_INTERVAL_MILLIS
+        EVERY_BATCH // After every write
+    }
+
+    private static final ScoreRecord CLOSE = new ScoreRecord(0, 0, 0, 0, 0, 0); // Last record of the queue, put by close
+    private static ScoreJournal defaultJournal; // Journal used by the games that were not given one
+
+    private final FileChannel channel; // Channel of the file, opened for appending
+    private final SyncPolicy syncPolicy; // When the records are forced to the disk
+    private final BlockingQueue<ScoreRecord> queue = new LinkedBlockingQueue<>(); // Records waiting to be written
+    private final Thread writer; // Thread that writes the records
+    private boolean closed = false; // Whether the journal no longer accepts records
+    private long lastSync = System.currentTimeMillis(); // Time of the last sync
+
+    /**
+     * Constructor for ScoreJournal.
+     * Opens the file, creating it if needed, and starts the writer thread.
+     *
+     * @param file       the journal file
+     * @param syncPolicy when the records are forced to the disk
+     * @throws IOException if the file cannot be opened
+     */
+    public ScoreJournal(Path file, SyncPolicy syncPolicy) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.syncPolicy = syncPolicy;
+        this.writer = new Thread(this::writeRecords, "score-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Gets the default journal, which appends to scores.txt and is closed when the application exits.
+     *
+     * @return the default journal
+     * @throws IOException if the file cannot be opened
+     */
+    public static synchronized ScoreJournal getDefault() throws IOException {
+        if (defaultJournal == null) {
+            ScoreJournal journal = new ScoreJournal(Path.of(DEFAULT_FILE), SyncPolicy.INTERVAL);
+            Runtime.getRuntime().addShutdownHook(new Thread(journal::closeQuietly, "score-journal-shutdown"));
+            defaultJournal = journal;
+        }
+        return defaultJournal;
+    }
+
+    /**
+     * Adds a record to the journal. The record is written later by the writer thread.
+     *
+     * @param record the record
+     * @throws IllegalStateException if the journal is closed
+     */
+    public synchronized void append(ScoreRecord record) {
+        if (closed) {
+            throw new IllegalStateException("Diário de pontuações fechado");
+        }
+        queue.add(record);
+    }
+
+    /**
+     * Writes the records as they arrive, until the record put by close is taken.
+     * The writer thread is never interrupted, because interrupting a thread writing to a FileChannel closes the channel.
+     */
+    private void writeRecords() {
+        List<ScoreRecord> batch = new ArrayList<>(MAX_BATCH);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            if (batch.get(batch.size() - 1) == CLOSE) { // Nothing is added after it, so it is always last
+                batch.remove(batch.size() - 1);
+                running = false;
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a batch of records and syncs it according to the policy.
+     *
+     * @param batch the records
+     * @throws IOException if the file cannot be written
+     */
+    private void write(List<ScoreRecord> batch) throws IOException {
+        StringBuilder text = new StringBuilder(batch.size() * 96);
+        for (ScoreRecord record : batch) {
+            text.append(record.toLine()).append('\n');
+        }
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(text.toString());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        long now = System.currentTimeMillis();
+        if (syncPolicy == SyncPolicy.EVERY_BATCH
+                || (syncPolicy == SyncPolicy.INTERVAL && now - lastSync >= SYNC_INTERVAL_MILLIS)) {
+            channel.force(false);
+            lastSync = now;
+        }
+    }
+
+    /**
+     * Stops accepting records, waits until the records in the queue are written, syncs them and closes the file.
+     *
+     * @throws IOException if the file cannot be synced or closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(CLOSE);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (syncPolicy != SyncPolicy.NEVER) {
+                channel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Closes the journal, printing the error if it cannot be closed.
+     */
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
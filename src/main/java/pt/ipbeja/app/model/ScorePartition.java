@@ -0,0 +1,266 @@
+package pt.ipbeja.app.model;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * ScorePartition class.
+ * Query structures over a set of games of the leaderboard (all the games, or the games of one word list).
+ * The games are kept sorted by time, with a segment tree of the maximum score over the time order for top-K queries
+ * in a time range, and a Fenwick tree of the number of games per score for percentile queries.
+ * New games are merged into the time order from the end, so only the games more recent than the oldest new game
+ * move and only their part of the segment tree is updated; when new games are the most recent, as usual, nothing moves.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class ScorePartition {
+    private static final int NO_SCORE = Integer.MIN_VALUE; // Value of the segment tree leaves without a game
+
+    private int size = 0; // Number of games
+    private int[] ids = new int[16]; // Id of each game in the leaderboard, in time order
+    private long[] timestamps = new long[16]; // Time of each game, in time order
+    private int[] maxScores = emptyTree(16); // Segment tree of the maximum score; leaf i is at capacity + i
+    private int[] counts = new int[64]; // Fenwick tree of the number of games per score (index score + 1)
+
+    /**
+     * Adds games to the partition.
+     *
+     * @param newIds        the ids of the games, sorted by time
+     * @param newTimestamps the time of each game, in the same order
+     * @param newScores     the score of each game, in the same order
+     * @param allScores     the score of every game of the leaderboard, by id
+     */
+    void addAll(int[] newIds, long[] newTimestamps, int[] newScores, int[] allScores) {
+        int n = newIds.length;
+        if (n == 0) {
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            addCount(newScores[i]);
+        }
+        if (size + n > ids.length) {
+            rebuild(size + n);
+        }
+        int first = upperBound(newTimestamps[0]); // Games before it are older than every new game and do not move
+        int a = size - 1;
+        int b = n - 1;
+        for (int k = size + n - 1; k >= first; k--) { // Merge from the end, so the games only move right
+            if (b < 0 || (a >= first && timestamps[a] > newTimestamps[b])) {
+                ids[k] = ids[a];
+                timestamps[k] = timestamps[a--];
+            } else {
+                ids[k] = newIds[b];
+                timestamps[k] = newTimestamps[b--];
+            }
+        }
+        size += n;
+        updateLeaves(first, size, allScores);
+    }
+
+    /**
+     * Grows the arrays and the segment tree to hold at least the given number of games.
+     *
+     * @param minCapacity the number of games
+     */
+    private void rebuild(int minCapacity) {
+        int capacity = ids.length;
+        while (capacity < minCapacity) {
+            capacity *= 2;
+        }
+        int[] tree = emptyTree(capacity);
+        for (int i = 0; i < size; i++) {
+            tree[capacity + i] = maxScores[ids.length + i];
+        }
+        for (int node = capacity - 1; node >= 1; node--) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+        ids = Arrays.copyOf(ids, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        maxScores = tree;
+    }
+
+    /**
+     * Sets the segment tree leaves of a range of positions and updates the maximum of their ancestors, level by level.
+     *
+     * @param from      the first position (inclusive)
+     * @param to        the last position (exclusive)
+     * @param allScores the score of every game of the leaderboard, by id
+     */
+    private void updateLeaves(int from, int to, int[] allScores) {
+        int capacity = ids.length;
+        for (int i = from; i < to; i++) {
+            maxScores[capacity + i] = allScores[ids[i]];
+        }
+        for (int lo = (capacity + from) / 2, hi = (capacity + to - 1) / 2; lo >= 1; lo /= 2, hi /= 2) {
+            for (int node = lo; node <= hi; node++) {
+                maxScores[node] = Math.max(maxScores[2 * node], maxScores[2 * node + 1]);
+            }
+        }
+    }
+
+    /**
+     * Creates an empty segment tree.
+     *
+     * @param capacity the number of leaves, a power of two
+     * @return the tree
+     */
+    private static int[] emptyTree(int capacity) {
+        int[] tree = new int[2 * capacity];
+        Arrays.fill(tree, NO_SCORE);
+        return tree;
+    }
+
+    /**
+     * Finds the games with the highest scores in a time range.
+     * The range is split into the O(log n) nodes of the segment tree that cover it, and the nodes are opened
+     * in order of their maximum score, so only O(k log n) nodes are visited.
+     *
+     * @param k    the number of games
+     * @param from the start of the time range (inclusive)
+     * @param to   the end of the time range (exclusive)
+     * @return the ids of the games, from the highest score
+     */
+    int[] top(int k, long from, long to) {
+        int capacity = ids.length;
+        int lo = lowerBound(from) + capacity;
+        int hi = lowerBound(to) + capacity;
+        PriorityQueue<Integer> nodes = new PriorityQueue<>((x, y) -> Integer.compare(maxScores[y], maxScores[x]));
+        for (; lo < hi; lo /= 2, hi /= 2) {
+            if ((lo & 1) == 1) {
+                nodes.add(lo++);
+            }
+            if ((hi & 1) == 1) {
+                nodes.add(--hi);
+            }
+        }
+        int[] result = new int[k];
+        int found = 0;
+        while (found < k && !nodes.isEmpty()) {
+            int node = nodes.remove();
+            if (node >= capacity) {
+                result[found++] = ids[node - capacity];
+            } else {
+                nodes.add(2 * node);
+                nodes.add(2 * node + 1);
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    /**
+     * Finds the first position in time order with a time after the given one.
+     *
+     * @param timestamp the time
+     * @return the position
+     */
+    private int upperBound(long timestamp) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[mid] <= timestamp) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the first position in time order with a time not before the given one.
+     *
+     * @param timestamp the time
+     * @return the position
+     */
+    private int lowerBound(long timestamp) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[mid] < timestamp) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Adds a game to the Fenwick tree, growing it when the score is higher than the ones seen so far.
+     * Scores are counted between 0 and ScoreRecord.MAX_SCORE, so the tree never grows past about 4 MB
+     * even if a damaged index gives a game a huge score.
+     *
+     * @param score the score of the game
+     */
+    private void addCount(int score) {
+        int index = Math.min(Math.max(score, 0), ScoreRecord.MAX_SCORE) + 1;
+        if (index >= counts.length) {
+            int length = 2 * Integer.highestOneBit(index); // The next power of two above index
+            int[] grown = new int[length];
+            for (int s = 0; s + 1 < counts.length; s++) { // Rebuild from the count of each score
+                int c = countAtMost(s) - countAtMost(s - 1);
+                for (int i = s + 1; i < length && c != 0; i += i & -i) {
+                    grown[i] += c;
+                }
+            }
+            counts = grown;
+        }
+        for (int i = index; i < counts.length; i += i & -i) {
+            counts[i]++;
+        }
+    }
+
+    /**
+     * Counts the games with a score up to the given one.
+     *
+     * @param score the score
+     * @return the number of games
+     */
+    int countAtMost(int score) {
+        int count = 0;
+        for (int i = Math.min(score + 1, counts.length - 1); i > 0; i -= i & -i) {
+            count += counts[i];
+        }
+        return count;
+    }
+
+    /**
+     * Finds the lowest score such that at least the given number of games have that score or less.
+     *
+     * @param rank the number of games (1 to size)
+     * @return the score
+     */
+    int scoreAtRank(int rank) {
+        int index = 0;
+        for (int step = Integer.highestOneBit(counts.length - 1); step > 0; step /= 2) {
+            if (index + step < counts.length && counts[index + step] < rank) {
+                index += step;
+                rank -= counts[index];
+            }
+        }
+        return index; // The first tree index with enough games is index + 1, which stands for the score index
+    }
+
+    /**
+     * Removes every game.
+     */
+    void clear() {
+        size = 0;
+        ids = new int[16];
+        timestamps = new long[16];
+        maxScores = emptyTree(16);
+        counts = new int[64];
+    }
+
+    /**
+     * Gets the number of games.
+     *
+     * @return the number of games
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,60 @@
+package pt.ipbeja.app.model;
+
+import java.util.Locale;
+
+/**
+ * Score of a finished game, as saved in the score journal.
+ * Each record is one line of text with its fields separated by semicolons, ending with the score message.
+ *
+ * @param timestamp      the time the game ended, in milliseconds since the epoch
+ * @param score          the total score
+ * @param wordsFound     the number of words found
+ * @param totalWords     the number of words of the game
+ * @param durationMillis the duration of the game, in milliseconds
+ * @param wordListId     the fingerprint of the words of the game
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public record ScoreRecord(long timestamp, int score, int wordsFound, int totalWords, long durationMillis, long wordListId) {
+    public static final int MAX_SCORE = 1_000_000; // Highest score a line of the journal may have; higher ones are damaged lines
+
+    /**
+     * Gets the score message shown to the player.
+     *
+     * @return the score message
+     */
+    public String message() {
+        double percentage = (totalWords == 0) ? 0 : ((double) wordsFound / totalWords) * 100;
+        return String.format("Palavras encontradas: %d/%d (%.2f%%)", wordsFound, totalWords, percentage);
+    }
+
+    /**
+     * Gets the line of the journal for this record.
+     *
+     * @return the line, without the line break
+     */
+    public String toLine() {
+        return String.format(Locale.ROOT, "%d;%d;%d;%d;%d;%016x;%s",
+                timestamp, score, wordsFound, totalWords, durationMillis, wordListId, message());
+    }
+
+    /**
+     * Reads a record from a line of the journal.
+     *
+     * @param line the line, without the line break
+     * @return the record
+     * @throws IllegalArgumentException if the line is not a record or its score is negative or above MAX_SCORE
+     */
+    public static ScoreRecord parse(String line) {
+        String[] fields = line.split(";", 7);
+        if (fields.length < 6) {
+            throw new IllegalArgumentException("Registo de pontuação inválido: " + line);
+        }
+        int score = Integer.parseInt(fields[1]);
+        if (score < 0 || score > MAX_SCORE) {
+            throw new IllegalArgumentException("Pontuação inválida: " + line);
+        }
+        return new ScoreRecord(Long.parseLong(fields[0]), score, Integer.parseInt(fields[2]),
+                Integer.parseInt(fields[3]), Long.parseLong(fields[4]), Long.parseUnsignedLong(fields[5], 16));
+    }
+}
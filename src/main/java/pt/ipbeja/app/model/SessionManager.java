@@ -0,0 +1,126 @@
+package pt.ipbeja.app.model;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SessionManager class.
+ * Keeps the games of the game server by id. The number of sessions is capped, so memory stays bounded,
+ * and sessions with no requests for longer than the idle timeout are removed by evictIdle.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class SessionManager {
+
+    /**
+     * Creates the model of a new session.
+     */
+    @FunctionalInterface
+    public interface ModelFactory {
+
+        /**
+         * Creates a model.
+         *
+         * @return the model
+         */
+        WSModel create();
+    }
+
+    private final Map<String, GameSession> sessions = new ConcurrentHashMap<>(); // Sessions by id
+    private final AtomicInteger count = new AtomicInteger(); // Number of sessions, reserved before they are created
+    private final int maxSessions; // Maximum number of sessions at the same time
+    private final long idleTimeoutMillis; // Time without requests after which a session is evicted
+
+    /**
+     * Constructor for SessionManager.
+     *
+     * @param maxSessions       the maximum number of sessions at the same time
+     * @param idleTimeoutMillis the time without requests after which a session is evicted
+     */
+    public SessionManager(int maxSessions, long idleTimeoutMillis) {
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Creates a session.
+     * A place is reserved before the model is created, so the cap holds even when many sessions are created at once.
+     *
+     * @param factory creates the model of the session
+     * @param now     the current time, in milliseconds
+     * @return the session
+     * @throws IllegalStateException if the maximum number of sessions was reached
+     */
+    public GameSession create(ModelFactory factory, long now) {
+        if (count.incrementAndGet() > maxSessions) {
+            count.decrementAndGet();
+            throw new IllegalStateException("Limite de sessões atingido (" + maxSessions + ")");
+        }
+        try {
+            GameSession session = new GameSession(UUID.randomUUID().toString(), factory.create(), now);
+            sessions.put(session.id(), session);
+            return session;
+        } catch (RuntimeException e) {
+            count.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets a session and marks it as used.
+     *
+     * @param id  the id of the session
+     * @param now the current time, in milliseconds
+     * @return the session, or null if there is no session with that id
+     */
+    public GameSession get(String id, long now) {
+        GameSession session = sessions.get(id);
+        if (session != null) {
+            session.touch(now);
+        }
+        return session;
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param id the id of the session
+     * @return the session that ended, or null if there is no session with that id
+     */
+    public GameSession end(String id) {
+        GameSession session = sessions.remove(id);
+        if (session != null) {
+            count.decrementAndGet();
+        }
+        return session;
+    }
+
+    /**
+     * Removes the sessions with no requests for longer than the idle timeout.
+     *
+     * @param now the current time, in milliseconds
+     * @return the number of sessions removed
+     */
+    public int evictIdle(long now) {
+        int evicted = 0;
+        for (GameSession session : sessions.values()) {
+            if (now - session.lastAccess() > idleTimeoutMillis && sessions.remove(session.id(), session)) {
+                count.decrementAndGet();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Gets the number of sessions.
+     *
+     * @return the number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+}
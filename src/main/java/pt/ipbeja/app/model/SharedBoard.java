@@ -0,0 +1,71 @@
+package pt.ipbeja.app.model;
+
+/**
+ * SharedBoard class.
+ * Multiplayer game where several players, each on its own thread, look for the words of the same board.
+ * The selections are checked with the read-only methods of the model, so they never wait for each other,
+ * and the found words and the scores are kept in a WordClaims instead of in the model.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class SharedBoard {
+    private final WSModel model; // Board and words of the game, only read
+    private final WordClaims claims; // Player that found each word and the score of each player
+
+    /**
+     * Constructor for SharedBoard.
+     *
+     * @param model       the model of the game, which must not be played directly while it is shared
+     * @param playerCount the number of players
+     */
+    public SharedBoard(WSModel model, int playerCount) {
+        this.model = model;
+        this.claims = new WordClaims(model.wordCount(), playerCount);
+    }
+
+    /**
+     * Checks a selection of a player and gives the player the word if no one found it before.
+     * Positions outside the board are never a word, and the score is the one of the selected cells.
+     *
+     * @param player        the player
+     * @param firstPosition the position of the first letter
+     * @param lastPosition  the position of the last letter
+     * @return the score the player got, or 0 if the selection is not a word or the word was already found
+     */
+    public int select(int player, Position firstPosition, Position lastPosition) {
+        int id = model.wordIdAt(firstPosition, lastPosition);
+        if (id == WordDictionary.NOT_FOUND || claims.ownerOf(id) != WordClaims.UNCLAIMED) {
+            return 0;
+        }
+        int score = model.selectionScore(id, firstPosition, lastPosition);
+        return claims.claim(id, player, score) ? score : 0;
+    }
+
+    /**
+     * Gets the model of the game.
+     *
+     * @return the model
+     */
+    public WSModel model() {
+        return model;
+    }
+
+    /**
+     * Gets the player that found each word and the score of each player.
+     *
+     * @return the claims
+     */
+    public WordClaims claims() {
+        return claims;
+    }
+
+    /**
+     * Checks if the game ended.
+     *
+     * @return true if all the words were found, false otherwise
+     */
+    public boolean isOver() {
+        return claims.allClaimed();
+    }
+}
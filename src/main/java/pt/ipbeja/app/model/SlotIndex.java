@@ -0,0 +1,46 @@
+package pt.ipbeja.app.model;
+
+/**
+ * Index of the empty cells of the grid used by the word placement.
+ * Answers if a word fits in a slot and is updated as cells are filled and emptied.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public interface SlotIndex {
+
+    /**
+     * Checks if a word fits in a slot, that is, if all its cells are empty and inside the grid.
+     *
+     * @param line       the line of the first letter
+     * @param col        the column of the first letter
+     * @param direction  the direction of the word
+     * @param wordLength the length of the word
+     * @return true if the word fits, false otherwise
+     */
+    boolean fits(int line, int col, Direction direction, int wordLength);
+
+    /**
+     * Counts the slots where a word of the given length fits, in all the indexed directions.
+     *
+     * @param wordLength the length of the word
+     * @return the number of slots
+     */
+    long countFits(int wordLength);
+
+    /**
+     * Updates the index after a cell is filled.
+     *
+     * @param line the line of the cell
+     * @param col  the column of the cell
+     */
+    void occupy(int line, int col);
+
+    /**
+     * Updates the index after a cell is emptied.
+     *
+     * @param line the line of the cell
+     * @param col  the column of the cell
+     */
+    void release(int line, int col);
+}
@@ -1,55 +1,194 @@
 package pt.ipbeja.app.model;
 
-import javafx.scene.control.Alert;
-import javafx.scene.control.Button;
-import javafx.application.Platform;
-
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * WSModel class.
  * Represents the game logic model.
+ * The model has no JavaFX dependency; the end of the game is reported to the registered view.
  *
  * @version 31/05/2024 (Final)
  * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
  */
 public class WSModel {
-    private final List<List<Cell>> lettersGrid; // Grid to store the letters on the board
-    private final List<List<Button>> buttonGrid; // Grid to store the buttons on the board
-    private static final int BOARD_SIZE = 10; // Size of the board
+    private final LetterGrid lettersGrid; // Grid to store the letters and bonuses on the board
+    public static final int DEFAULT_BOARD_SIZE = 10; // Default number of lines and columns of the board
+    public static final int MAX_BOARD_SIZE = 10_000; // Maximum number of lines or columns of the board
+    private static final int BITBOARD_MIN_CELLS = 1_000_000; // Boards with more cells index the empty cells with bitboards
     private int totalScore = 0; // Total score of the player
     private final List<String> words = new ArrayList<>(); // List of words to be found
-    private final Set<String> foundWords = new HashSet<>(); // Set of words that have been found
-    private final Map<Character, Integer> letterScores = new HashMap<>(); // Map of letter scores
+    private final List<WordPlacement> placements = new ArrayList<>(); // Placement of each word on the board
+    private final WordDictionary dictionary; // Ids, found state and prefixes of the words to be found
+    private final WordPlacement[] placementsById; // Placement of each word, by the id of the word
+    private final int[] letterScoresById; // Sum of the letter scores of each word, by the id of the word
+    private final BonusSums bonusSums; // Sums of the bonuses along every line, column and diagonal
     private final boolean withDiagonals; // Whether diagonals are allowed
+    private final long seed; // Seed of the random choices of the game
+    private final RandomGenerator random; // Random number generator for the word order, placements, letters and bonuses
+    private final long startTime = System.currentTimeMillis(); // Time the game started
+    private ScoreJournal journal; // Journal where the score is saved, or null to use the default journal
+    private WSView view; // View notified when the game ends, or null if no view is registered
 
     /**
      * Constructor for WSModel.
      *
      * @param filePath       the file path to read words from
      * @param withDiagonals  whether diagonals are allowed
+     * @throws WordPlacementException if the words cannot all be placed on the board
      */
     public WSModel(String filePath, boolean withDiagonals) {
-        this.lettersGrid = new ArrayList<>();
-        this.buttonGrid = new ArrayList<>();
+        this(filePath, withDiagonals, DEFAULT_BOARD_SIZE, DEFAULT_BOARD_SIZE);
+    }
+
+    /**
+     * Constructor for WSModel with a board of the given size.
+     *
+     * @param filePath      the file path to read words from
+     * @param withDiagonals whether diagonals are allowed
+     * @param nLines        the number of lines of the board (1 to MAX_BOARD_SIZE)
+     * @param nCols         the number of columns of the board (1 to MAX_BOARD_SIZE)
+     * @throws WordPlacementException if the words cannot all be placed on the board
+     */
+    public WSModel(String filePath, boolean withDiagonals, int nLines, int nCols) {
+        this(loadWords(filePath), withDiagonals, nLines, nCols);
+    }
+
+    /**
+     * Constructor for WSModel with words sampled from a dictionary.
+     * The dictionary is read once and only the sampled words are kept in memory,
+     * so it can be a full language dictionary, far bigger than what fits on the board.
+     * Only words that fit in a line or column of the board are sampled.
+     *
+     * @param dictionary    the dictionary file, one word per line
+     * @param wordCount     the number of words to sample
+     * @param byLength      whether to sample the same number of words of each length
+     * @param withDiagonals whether diagonals are allowed
+     * @param nLines        the number of lines of the board (1 to MAX_BOARD_SIZE)
+     * @param nCols         the number of columns of the board (1 to MAX_BOARD_SIZE)
+     * @param seed          the seed of the sample and of the random choices of the game
+     * @throws IOException            if the dictionary cannot be read
+     * @throws WordPlacementException if the words cannot all be placed on the board
+     */
+    public WSModel(Path dictionary, int wordCount, boolean byLength, boolean withDiagonals, int nLines, int nCols, long seed) throws IOException {
+        this(new WordListLoader(Math.max(nLines, nCols)).sample(dictionary, wordCount, byLength, new SplittableRandom(seed).split()),
+                withDiagonals, nLines, nCols, seed);
+    }
+
+    /**
+     * Constructor for WSModel with words already read, so many games can be created from a single read of the file.
+     *
+     * @param words         the words to be found
+     * @param withDiagonals whether diagonals are allowed
+     * @param nLines        the number of lines of the board (1 to MAX_BOARD_SIZE)
+     * @param nCols         the number of columns of the board (1 to MAX_BOARD_SIZE)
+     * @throws WordPlacementException if the words cannot all be placed on the board
+     */
+    public WSModel(List<String> words, boolean withDiagonals, int nLines, int nCols) {
+        this(words, withDiagonals, nLines, nCols, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructor for WSModel with a given seed.
+     * The same words, options and seed always give the same board.
+     *
+     * @param words         the words to be found
+     * @param withDiagonals whether diagonals are allowed
+     * @param nLines        the number of lines of the board (1 to MAX_BOARD_SIZE)
+     * @param nCols         the number of columns of the board (1 to MAX_BOARD_SIZE)
+     * @param seed          the seed of the random choices of the game
+     * @throws WordPlacementException if the words cannot all be placed on the board
+     */
+    public WSModel(List<String> words, boolean withDiagonals, int nLines, int nCols, long seed) {
+        if (nLines < 1 || nLines > MAX_BOARD_SIZE || nCols < 1 || nCols > MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("Tamanho do tabuleiro inválido: " + nLines + "x" + nCols);
+        }
+        this.lettersGrid = new LetterGrid(nLines, nCols);
         this.withDiagonals = withDiagonals;
-        initializeGrid();
-        initializeButtonGrid();
-        readWordsFromFile(filePath);
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.words.addAll(words);
+        shuffle(this.words);
+        distributeWordsOnBoard(this.words);
+        this.dictionary = new WordDictionary(this.words);
+        this.placementsById = indexPlacements();
         fillRemainingPositionsRandomly();
-        initializeLetterScores();
+        this.letterScoresById = initializeLetterScores();
+        this.bonusSums = new BonusSums(lettersGrid);
+    }
+
+    /**
+     * Constructor for WSModel with a board that was already generated, used when a saved puzzle is loaded.
+     *
+     * @param grid          the letters and bonuses of the board
+     * @param words         the words to be found, in the order of their ids
+     * @param placements    the placement of each word on the board
+     * @param withDiagonals whether diagonals are allowed
+     * @param seed          the seed the board was generated with
+     */
+    WSModel(LetterGrid grid, List<String> words, List<WordPlacement> placements, boolean withDiagonals, long seed) {
+        this.lettersGrid = grid;
+        this.withDiagonals = withDiagonals;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.words.addAll(words);
+        this.placements.addAll(placements);
+        this.dictionary = new WordDictionary(words);
+        this.placementsById = indexPlacements();
+        this.letterScoresById = initializeLetterScores();
+        this.bonusSums = new BonusSums(lettersGrid);
+    }
+
+    /**
+     * Indexes the placements of the words by the id of each word.
+     *
+     * @return the placement of each word, by id
+     */
+    private WordPlacement[] indexPlacements() {
+        WordPlacement[] byId = new WordPlacement[dictionary.size()];
+        for (WordPlacement placement : placements) {
+            int id = dictionary.idOf(placement.word());
+            if (byId[id] == null) {
+                byId[id] = placement;
+            }
+        }
+        return byId;
+    }
+
+    /**
+     * Initializes the letter scores, adding up the score of the letters of each word once.
+     *
+     * @return the sum of the letter scores of each word, by id
+     */
+    private int[] initializeLetterScores() {
+        int[] scores = new int[dictionary.size()];
+        for (int id = 0; id < scores.length; id++) {
+            String word = dictionary.word(id);
+            for (int i = 0; i < word.length(); i++) {
+                scores[id] += letterScore(word.charAt(i));
+            }
+        }
+        return scores;
     }
 
     /**
-     * Initializes the letter scores.
+     * Gets the score of a letter: vowels are worth 1 (A) to 5 (U) and the other letters nothing.
+     *
+     * @param letter the letter
+     * @return the score of the letter
      */
-    private void initializeLetterScores() {
-        letterScores.put('A', 1);
-        letterScores.put('E', 2);
-        letterScores.put('I', 3);
-        letterScores.put('O', 4);
-        letterScores.put('U', 5);
+    private static int letterScore(char letter) {
+        return switch (Character.toUpperCase(letter)) {
+            case 'A' -> 1;
+            case 'E' -> 2;
+            case 'I' -> 3;
+            case 'O' -> 4;
+            case 'U' -> 5;
+            default -> 0;
+        };
     }
 
     /**
@@ -72,8 +211,11 @@ public class WSModel {
 
     /**
      * Calculates the score for a word found with a wildcard.
+     * The letters of the word were added up when the game started and the bonuses of its cells
+     * come from the sums along its direction, so the score takes a few array reads whatever the length of the word
+     * (on boards of up to BonusSums.MAX_CELLS cells; larger boards add the bonuses one by one).
      *
-     * @param word              the word found
+     * @param id                the id of the word found
      * @param startX            the starting X position
      * @param startY            the starting Y position
      * @param horizontal        whether the word is horizontal
@@ -81,53 +223,22 @@ public class WSModel {
      * @param diagonalDirection the direction of the diagonal (0 for ↘, 1 for ↙)
      * @return the score for the word
      */
-    private int wordWithWildcardFound(String word, int startX, int startY, boolean horizontal, boolean diagonal, int diagonalDirection) {
-        int score = 0;
-        for (int i = 0; i < word.length(); i++) {
-            char letter = word.charAt(i);
-            int baseScore = letterScores.getOrDefault(Character.toUpperCase(letter), 0);
-            Position position = getPositionForLetterInWord(startX, startY, i, horizontal, diagonal, diagonalDirection);
-            int row = position.line();
-            int col = position.col();
-            Cell cell = lettersGrid.get(row).get(col);
-            score += baseScore + cell.getBonus();
-        }
-        return score;
-    }
-
-    /**
-     * Gets the position for a letter in a word.
-     *
-     * @param startX            the starting X position
-     * @param startY            the starting Y position
-     * @param letterIndex       the index of the letter in the word
-     * @param horizontal        whether the word is horizontal
-     * @param diagonal          whether the word is diagonal
-     * @param diagonalDirection the direction of the diagonal (0 for ↘, 1 for ↙)
-     * @return the position of the letter in the word
-     */
-    private Position getPositionForLetterInWord(int startX, int startY, int letterIndex, boolean horizontal, boolean diagonal, int diagonalDirection) {
-        int row, col;
+    private int wordWithWildcardFound(int id, int startX, int startY, boolean horizontal, boolean diagonal, int diagonalDirection) {
+        Direction direction;
         if (horizontal) {
-            row = startY;
-            col = startX + letterIndex;
+            direction = Direction.HORIZONTAL;
         } else if (diagonal) {
-            if (diagonalDirection == 0) {
-                row = startY + letterIndex;
-                col = startX + letterIndex;
-            } else {
-                row = startY + letterIndex;
-                col = startX - letterIndex;
-            }
+            direction = (diagonalDirection == 0) ? Direction.DIAGONAL_RIGHT : Direction.DIAGONAL_LEFT;
         } else {
-            row = startY + letterIndex;
-            col = startX;
+            direction = Direction.VERTICAL;
         }
-        return new Position(row, col);
+        return letterScoresById[id] + bonusSums.sum(startY, startX, direction, dictionary.word(id).length());
     }
 
     /**
      * Checks if the first and last positions of a word are valid.
+     * No object is created on this path unless a word is found: the cells are read with integer steps
+     * and followed in the dictionary trie, whose last node gives the id of the word.
      *
      * @param firstPosition the first position
      * @param lastPosition  the last position
@@ -142,251 +253,223 @@ public class WSModel {
         boolean horizontal = minRow == maxRow;
         boolean vertical = minCol == maxCol;
         boolean diagonal = isDiagonalValid(firstPosition, lastPosition);
-        int diagonalDirection = 0;
-
-        if (diagonal) {
-            if (maxCol - minCol == maxRow - minRow) {
-                diagonalDirection = (firstPosition.col() < lastPosition.col()) ? 0 : 1; // ↘ or ↙
-            }
-        }
 
         if (horizontal || vertical || diagonal) {
-            String formedWord = buildWord(minRow, maxRow, minCol, maxCol, diagonalDirection);
+            int diagonalDirection = diagonalDirection(firstPosition, lastPosition);
+            int id = selectedWordId(minRow, maxRow, minCol, maxCol, diagonalDirection);
+            if (id == WordDictionary.NOT_FOUND) {
+                return false;
+            }
 
-            return isWordValid(formedWord, (diagonalDirection == 0) ? minCol : maxCol, minRow, horizontal, diagonal, diagonalDirection);
+            return markWordFound(id, (diagonalDirection == 0) ? minCol : maxCol, minRow, horizontal, diagonal, diagonalDirection) >= 0;
         }
         return false;
     }
 
     /**
-     * Builds a word from the given positions.
+     * Gets the direction of the diagonal between two positions, which is read from its top end.
+     * Selections made downwards to the right (↘) or upwards to the left (↖) are ↘ diagonals;
+     * the ones made downwards to the left (↙) or upwards to the right (↗) are ↙ diagonals.
      *
-     * @param minRow            the minimum row
-     * @param maxRow            the maximum row
-     * @param minCol            the minimum column
-     * @param maxCol            the maximum column
-     * @param diagonalDirection the direction of the diagonal (0 for ↘, 1 for ↙)
-     * @return the formed word
+     * @param firstPosition the first position
+     * @param lastPosition  the last position
+     * @return 0 for ↘ (also for lines and columns), 1 for ↙
      */
-    private String buildWord(int minRow, int maxRow, int minCol, int maxCol, int diagonalDirection) {
-        StringBuilder word = new StringBuilder();
+    private static int diagonalDirection(Position firstPosition, Position lastPosition) {
+        int lineDiff = lastPosition.line() - firstPosition.line();
+        int colDiff = lastPosition.col() - firstPosition.col();
+        return (Integer.signum(lineDiff) * Integer.signum(colDiff) < 0) ? 1 : 0;
+    }
 
-        if (minRow == maxRow) { // Horizontal
-            for (int col = minCol; col <= maxCol; col++) {
-                word.append(this.textInPosition(new Position(minRow, col)));
-            }
-        } else if (minCol == maxCol) { // Vertical
-            for (int row = minRow; row <= maxRow; row++) {
-                word.append(this.textInPosition(new Position(row, minCol)));
-            }
-        } else { // Diagonal
-            int row = minRow;
-            int col = (diagonalDirection == 0) ? minCol : maxCol;
-            while (row <= maxRow) {
-                word.append(this.textInPosition(new Position(row, col)));
-                row++;
-                col = (diagonalDirection == 0) ? col + 1 : col - 1;
-            }
+    /**
+     * Finds the word selected from its first to its last letter, without marking it as found or changing the score.
+     * The board and the dictionary are only read, so several threads can check selections on the same model,
+     * as the players of a shared board do.
+     *
+     * Positions outside the board are never part of a word.
+     *
+     * @param firstPosition the first position
+     * @param lastPosition  the last position
+     * @return the id of the word, or WordDictionary.NOT_FOUND if the selection is not a word
+     */
+    public int wordIdAt(Position firstPosition, Position lastPosition) {
+        if (!isInside(firstPosition) || !isInside(lastPosition)) {
+            return WordDictionary.NOT_FOUND;
+        }
+        if (!isLineValid(firstPosition, lastPosition) && !isColumnValid(firstPosition, lastPosition)
+                && !isDiagonalValid(firstPosition, lastPosition)) {
+            return WordDictionary.NOT_FOUND;
         }
+        return selectedWordId(Math.min(firstPosition.line(), lastPosition.line()), Math.max(firstPosition.line(), lastPosition.line()),
+                Math.min(firstPosition.col(), lastPosition.col()), Math.max(firstPosition.col(), lastPosition.col()),
+                diagonalDirection(firstPosition, lastPosition));
+    }
 
-        return word.toString();
+    /**
+     * Gets the score of a selection of a word, the same score isFirstAndLastOfWord gives it:
+     * the score of each of its letters plus the bonus of each selected cell.
+     * The selected cells are not always the ones where the word was placed, for example when the letters
+     * of the game make the word again somewhere else.
+     *
+     * @param id            the id of the word, as given by wordIdAt for the selection
+     * @param firstPosition the first position
+     * @param lastPosition  the last position
+     * @return the score of the selection
+     */
+    public int selectionScore(int id, Position firstPosition, Position lastPosition) {
+        int minRow = Math.min(firstPosition.line(), lastPosition.line());
+        int minCol = Math.min(firstPosition.col(), lastPosition.col());
+        int maxCol = Math.max(firstPosition.col(), lastPosition.col());
+        int diagonalDirection = diagonalDirection(firstPosition, lastPosition);
+        return wordWithWildcardFound(id, (diagonalDirection == 0) ? minCol : maxCol, minRow,
+                firstPosition.line() == lastPosition.line(), isDiagonalValid(firstPosition, lastPosition), diagonalDirection);
     }
 
     /**
-     * Checks if a formed word is valid.
+     * Checks if a position is on the board.
      *
-     * @param formedWord        the formed word
-     * @param col               the starting column
-     * @param row               the starting row
-     * @param horizontal        whether the word is horizontal
-     * @param diagonal          whether the word is diagonal
-     * @param diagonalDirection the direction of the diagonal (0 for ↘, 1 for ↙)
-     * @return true if the word is valid, false otherwise
+     * @param position the position
+     * @return true if the position is on the board, false otherwise
      */
-    private boolean isWordValid(String formedWord, int col, int row, boolean horizontal, boolean diagonal, int diagonalDirection) {
-        return wordFound(formedWord, col, row, horizontal, diagonal, diagonalDirection) != null;
+    public boolean isInside(Position position) {
+        return position.line() >= 0 && position.line() < nLines() && position.col() >= 0 && position.col() < nCols();
     }
 
     /**
-     * Initializes the letters grid with empty cells.
+     * Gets the score of a word where it was placed: the score of each of its letters plus the bonus of each of its cells.
+     * A selection of the word elsewhere on the board is scored by selectionScore.
+     *
+     * @param id the id of the word
+     * @return the score of the word
      */
-    private void initializeGrid() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            List<Cell> row = new ArrayList<>();
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                row.add(null); // Initialize the board with empty cells
-            }
-            lettersGrid.add(row);
-        }
+    public int wordScore(int id) {
+        WordPlacement placement = placementsById[id];
+        Position start = placement.start();
+        return letterScoresById[id] + bonusSums.sum(start.line(), start.col(), placement.direction(), placement.word().length());
     }
 
     /**
-     * Initializes the button grid with buttons.
+     * Gets the number of distinct words to be found, which are the ids from 0 to this number minus one.
+     *
+     * @return the number of words
      */
-    private void initializeButtonGrid() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            List<Button> row = new ArrayList<>();
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                Button button = new Button();
-                row.add(button);
-            }
-            buttonGrid.add(row);
-        }
+    public int wordCount() {
+        return dictionary.size();
     }
 
     /**
-     * Reads words from a file and stores them in the words list.
+     * Gets the word with a given id.
      *
-     * @param filePath the file path to read words from
+     * @param id the id of the word
+     * @return the word
      */
-    private void readWordsFromFile(String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                words.add(line);
-            }
-            Collections.shuffle(words);
-            distributeWordsOnBoard(words);
-            fillRemainingPositionsRandomly();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    public String word(int id) {
+        return dictionary.word(id);
     }
 
     /**
-     * Distributes the words on the board.
+     * Checks if the word with a given id was found.
      *
-     * @param words the list of words to distribute
+     * @param id the id of the word
+     * @return true if the word was found, false otherwise
      */
-    private void distributeWordsOnBoard(List<String> words) {
-        Random random = new Random();
-        for (String word : words) {
-            placeWordOnBoard(word, random);
-        }
+    public boolean isWordFound(int id) {
+        return dictionary.isFound(id);
     }
 
     /**
-     * Checks if a word can be placed at a given position.
+     * Finds the word formed by the letters between the given positions.
+     * The letters are followed in the dictionary trie, so the word is rejected
+     * as soon as its prefix matches no word, and no string is built.
      *
-     * @param word              the word to place
-     * @param startX            the starting X position
-     * @param startY            the starting Y position
-     * @param horizontal        whether the word is horizontal
+     * @param minRow            the minimum row
+     * @param maxRow            the maximum row
+     * @param minCol            the minimum column
+     * @param maxCol            the maximum column
      * @param diagonalDirection the direction of the diagonal (0 for ↘, 1 for ↙)
-     * @return true if the word can be placed, false otherwise
-     */
-    private boolean canPlaceWordAtPosition(String word, int startX, int startY, boolean horizontal, int diagonalDirection) {
-        int wordLength = word.length();
-        if (horizontal) {
-            if (startX + wordLength <= BOARD_SIZE) {
-                for (int j = 0; j < wordLength; j++) {
-                    int col = startX + j;
-                    if (startY >= BOARD_SIZE || col >= BOARD_SIZE || lettersGrid.get(startY).get(col) != null) {
-                        return false;
-                    }
-                }
-                return true;
-            }
-        } else {
-            if (startY + wordLength <= BOARD_SIZE) {
-                if (diagonalDirection == 0) {
-                    for (int j = 0; j < wordLength; j++) {
-                        int col = startX + j;
-                        int row = startY + j;
-                        if (row >= BOARD_SIZE || col >= BOARD_SIZE || lettersGrid.get(row).get(col) != null) {
-                            return false;
-                        }
-                    }
-                } else {
-                    for (int j = 0; j < wordLength; j++) {
-                        int col = startX - j;
-                        int row = startY + j;
-                        if (row >= BOARD_SIZE || col < 0 || lettersGrid.get(row).get(col) != null) {
-                            return false;
-                        }
-                    }
-                }
-                return true;
+     * @return the id of the formed word, or WordDictionary.NOT_FOUND if the letters are not a word
+     */
+    private int selectedWordId(int minRow, int maxRow, int minCol, int maxCol, int diagonalDirection) {
+        int node = WordDictionary.ROOT;
+        int rowStep = (minRow == maxRow) ? 0 : 1;
+        int colStep = (minCol == maxCol) ? 0 : ((rowStep == 0 || diagonalDirection == 0) ? 1 : -1);
+        int length = Math.max(maxRow - minRow, maxCol - minCol) + 1;
+        int row = minRow;
+        int col = (colStep < 0) ? maxCol : minCol;
+
+        for (int i = 0; i < length; i++) { // Horizontal, vertical or diagonal
+            char letter = lettersGrid.letterAt(row, col);
+            node = dictionary.child(node, letter);
+            if (node == WordDictionary.NOT_FOUND) {
+                return WordDictionary.NOT_FOUND;
             }
+            row += rowStep;
+            col += colStep;
         }
-        return false;
+
+        return dictionary.wordAt(node);
     }
 
     /**
-     * Places a word on the board.
+     * Reads the words from a file, one word per line, decoded as UTF-8.
+     * The words are trimmed and upper-cased; blank lines and repeated words are skipped.
      *
-     * @param word   the word to place
-     * @param random the random number generator
+     * @param filePath the file path to read words from
+     * @return the words in the file
+     * @throws IOException if the file cannot be read
      */
-    private void placeWordOnBoard(String word, Random random) {
-        boolean placed = false;
-        while (!placed) {
-            boolean horizontal = random.nextBoolean();
-            int startX = random.nextInt(BOARD_SIZE);
-            int startY = random.nextInt(BOARD_SIZE);
-            int diagonalDirection = random.nextInt(2);
-            if (withDiagonals) {
-                if (canPlaceWordAtPosition(word, startX, startY, horizontal, diagonalDirection)) {
-                    distributeWord(word, startX, startY, horizontal, diagonalDirection);
-                    placed = true;
-                }
-            } else {
-                if (canPlaceWordAtPosition(word, startX, startY, horizontal, -1)) {
-                    distributeWord(word, startX, startY, horizontal, -1);
-                    placed = true;
-                }
-            }
-        }
+    public static List<String> readWordsFromFile(String filePath) throws IOException {
+        return new WordListLoader(Integer.MAX_VALUE).load(Path.of(filePath));
     }
 
     /**
-     * Distributes a word on the board.
+     * Reads the words from a file, printing the error and returning no words if the file cannot be read.
      *
-     * @param word              the word to distribute
-     * @param startX            the starting X position
-     * @param startY            the starting Y position
-     * @param horizontal        whether the word is horizontal
-     * @param diagonalDirection the direction of the diagonal (0 for ↘, 1 for ↙)
+     * @param filePath the file path to read words from
+     * @return the words in the file
      */
-    private void distributeWord(String word, int startX, int startY, boolean horizontal, int diagonalDirection) {
-        Random random = new Random();
-        for (int j = 0; j < word.length(); j++) {
-            char letter = word.charAt(j);
-            Cell cell;
-            if (random.nextDouble() < 0.2) {
-                cell = new BonusCell(letter, 5); // Assign a BonusCell with a 20% probability
-            } else {
-                cell = new RegularCell(letter); // Assign a RegularCell with an 80% probability
-            }
+    private static List<String> loadWords(String filePath) {
+        try {
+            return readWordsFromFile(filePath);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return List.of();
+        }
+    }
 
-            if (horizontal) {
-                lettersGrid.get(startY).set(startX + j, cell);
-            } else {
-                if (diagonalDirection == 0) {
-                    lettersGrid.get(startY + j).set(startX + j, cell);
-                } else if (diagonalDirection == 1) {
-                    lettersGrid.get(startY + j).set(startX - j, cell);
-                } else {
-                    lettersGrid.get(startY + j).set(startX, cell);
-                }
-            }
+    /**
+     * Shuffles the words with the random number generator of the game (Fisher-Yates).
+     *
+     * @param list the words to shuffle
+     */
+    private void shuffle(List<String> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            Collections.swap(list, i, random.nextInt(i + 1));
         }
     }
 
+    /**
+     * Distributes the words on the board.
+     *
+     * @param words the list of words to distribute
+     * @throws WordPlacementException if the words cannot all be placed on the board
+     */
+    private void distributeWordsOnBoard(List<String> words) {
+        boolean useBitboard = (long) nLines() * nCols() >= BITBOARD_MIN_CELLS;
+        WordPlacer placer = new WordPlacer(lettersGrid, Direction.forGame(withDiagonals), random, useBitboard);
+        placements.addAll(placer.placeWords(words));
+    }
+
     /**
      * Fills the remaining positions on the board randomly with letters.
      */
     private void fillRemainingPositionsRandomly() {
-        Random random = new Random();
         char[] alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (lettersGrid.get(i).get(j) == null) {
-                    if (Math.random() < 0.2) {
-                        lettersGrid.get(i).set(j, new BonusCell(alphabet[random.nextInt(26)], 5));
-                    } else {
-                        lettersGrid.get(i).set(j, new RegularCell(alphabet[random.nextInt(26)]));
-                    }
+        for (int i = 0; i < nLines(); i++) {
+            for (int j = 0; j < nCols(); j++) {
+                if (lettersGrid.isEmpty(i, j)) {
+                    int bonus = (random.nextDouble() < 0.2) ? 5 : 0;
+                    lettersGrid.set(i, j, alphabet[random.nextInt(26)], bonus);
                 }
             }
         }
@@ -398,7 +481,7 @@ public class WSModel {
      * @return the number of lines
      */
     public int nLines() {
-        return this.lettersGrid.size();
+        return this.lettersGrid.nLines();
     }
 
     /**
@@ -407,13 +490,70 @@ public class WSModel {
      * @return the number of columns
      */
     public int nCols() {
-        return this.lettersGrid.get(0).size();
+        return this.lettersGrid.nCols();
+    }
+
+    /**
+     * Checks if diagonals are allowed in the game.
+     *
+     * @return true if diagonals are allowed, false otherwise
+     */
+    public boolean hasDiagonals() {
+        return withDiagonals;
+    }
+
+    /**
+     * Gets the seed of the game, which together with the words and options reproduces the board.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the placement of each word on the board.
+     *
+     * @return the placements of the words
+     */
+    public List<WordPlacement> getPlacements() {
+        return Collections.unmodifiableList(placements);
     }
 
     /**
      * Registers the view.
+     *
+     * @param view the view notified when the game ends
      */
-    public void registerView() {
+    public void registerView(WSView view) {
+        this.view = view;
+    }
+
+    /**
+     * Gets the letters of the board, one line of the board per line of text.
+     *
+     * @return the text of the board
+     */
+    public String boardText() {
+        StringBuilder text = new StringBuilder(nLines() * (nCols() + 1));
+        for (int line = 0; line < nLines(); line++) {
+            for (int col = 0; col < nCols(); col++) {
+                text.append(lettersGrid.letterAt(line, col));
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Gets the letter in a cell, without creating a Position or a String, for views that draw many cells.
+     *
+     * @param line the line
+     * @param col  the column
+     * @return the letter, or LetterGrid.EMPTY if the cell was not filled
+     */
+    public char letterAt(int line, int col) {
+        return lettersGrid.letterAt(line, col);
     }
 
     /**
@@ -423,8 +563,7 @@ public class WSModel {
      * @return the text in the position
      */
     public String textInPosition(Position position) {
-        Cell cell = this.lettersGrid.get(position.line()).get(position.col());
-        return String.valueOf(cell.getLetter());
+        return String.valueOf(this.lettersGrid.letterAt(position.line(), position.col()));
     }
 
     /**
@@ -433,7 +572,7 @@ public class WSModel {
      * @return true if all words were found, false otherwise
      */
     public boolean allWordsWereFound() {
-        return foundWords.size() == words.size();
+        return dictionary.foundCount() == dictionary.size();
     }
 
     /**
@@ -448,22 +587,38 @@ public class WSModel {
      * @return the word and its score if found, null otherwise
      */
     public String wordFound(String word, int startX, int startY, boolean horizontal, boolean diagonal, int diagonalDirection) {
-        if (words.contains(word) && !foundWords.contains(word)) {
-            foundWords.add(word);
-
-            int wordScore = wordWithWildcardFound(word, startX, startY, horizontal, diagonal, diagonalDirection);
-            addToTotalScore(wordScore);
-            // Check if all words were found
-            if (allWordsWereFound()) {
-                String scoreMessage = getScoreMessage();
-                writeScoreToFile();
-                showAlertAndExit(scoreMessage);
-            }
-
-            return word + " = " + wordScore + " pontos";
-        } else {
+        int id = dictionary.idOf(word);
+        if (id == WordDictionary.NOT_FOUND) {
             return null;
         }
+        int wordScore = markWordFound(id, startX, startY, horizontal, diagonal, diagonalDirection);
+        return (wordScore < 0) ? null : word + " = " + wordScore + " pontos";
+    }
+
+    /**
+     * Marks the word with a given id as found and adds its score to the total score.
+     *
+     * @param id                the id of the word found
+     * @param startX            the starting X position
+     * @param startY            the starting Y position
+     * @param horizontal        whether the word is horizontal
+     * @param diagonal          whether the word is diagonal
+     * @param diagonalDirection the direction of the diagonal (0 for ↘, 1 for ↙)
+     * @return the score of the word, or -1 if the word was already found
+     */
+    private int markWordFound(int id, int startX, int startY, boolean horizontal, boolean diagonal, int diagonalDirection) {
+        if (!dictionary.markFound(id)) {
+            return -1;
+        }
+        int wordScore = wordWithWildcardFound(id, startX, startY, horizontal, diagonal, diagonalDirection);
+        addToTotalScore(wordScore);
+        // Check if all words were found
+        if (allWordsWereFound()) {
+            String scoreMessage = getScoreMessage();
+            writeScoreToFile();
+            notifyGameOver(scoreMessage);
+        }
+        return wordScore;
     }
 
     /**
@@ -480,29 +635,51 @@ public class WSModel {
     }
 
     /**
-     * Shows an alert and exits the application.
+     * Tells the view that the game ended.
      *
-     * @param message the message to show
+     * @param message the score message
      */
-    private void showAlertAndExit(String message) {
-        Platform.runLater(() -> {
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Fim de jogo");
-            alert.setHeaderText(null);
-            alert.setContentText(message);
-            alert.showAndWait();
-            Platform.exit();
-        });
+    private void notifyGameOver(String message) {
+        if (view != null) {
+            view.update(new MessageToUI(List.of(), message));
+        }
     }
 
     /**
      * Gets the cell at a given position.
      *
+     * The cell is created from the letter and bonus stored in the grid.
+     *
      * @param position the position
-     * @return the cell at the position
+     * @return the cell at the position, or null if the position is empty
      */
     public Cell getCell(Position position) {
-        return lettersGrid.get(position.line()).get(position.col());
+        int line = position.line();
+        int col = position.col();
+        if (lettersGrid.isEmpty(line, col)) {
+            return null;
+        }
+        int bonus = lettersGrid.bonusAt(line, col);
+        char letter = lettersGrid.letterAt(line, col);
+        return (bonus > 0) ? new BonusCell(letter, bonus) : new RegularCell(letter);
+    }
+
+    /**
+     * Gets the grid of letters, for the classes of the model that work on the whole board.
+     *
+     * @return the grid of letters
+     */
+    LetterGrid grid() {
+        return lettersGrid;
+    }
+
+    /**
+     * Gets the dictionary of the words to be found.
+     *
+     * @return the dictionary
+     */
+    WordDictionary dictionary() {
+        return dictionary;
     }
 
     /**
@@ -511,19 +688,40 @@ public class WSModel {
      * @return the score message
      */
     public String getScoreMessage() {
-        int totalWords = words.size();
-        int foundWordsCount = foundWords.size();
+        int totalWords = dictionary.size();
+        int foundWordsCount = dictionary.foundCount();
         double score = ((double) foundWordsCount / totalWords) * 100;
         return String.format("Palavras encontradas: %d/%d (%.2f%%)", foundWordsCount, totalWords, score);
     }
 
     /**
-     * Writes the score to a file.
+     * Gets the record of the score of the game, as it is saved in the score journal.
+     *
+     * @return the score record
+     */
+    public ScoreRecord getScoreRecord() {
+        long now = System.currentTimeMillis();
+        return new ScoreRecord(now, totalScore, dictionary.foundCount(), dictionary.size(), now - startTime,
+                dictionary.fingerprint());
+    }
+
+    /**
+     * Sets the journal where the score is saved.
+     *
+     * @param journal the journal, or null to use the default journal (scores.txt)
+     */
+    public void setScoreJournal(ScoreJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Writes the score to the score journal.
+     * The record is only queued here; the journal writes it on its own thread.
      */
     public void writeScoreToFile() {
-        String scoreMessage = getScoreMessage();
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("scores.txt", true))) {
-            writer.write(scoreMessage + "\n");
+        try {
+            ScoreJournal target = (journal != null) ? journal : ScoreJournal.getDefault();
+            target.append(getScoreRecord());
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -565,13 +763,19 @@ public class WSModel {
     }
 
     /**
-     * Sets a cell at a given position.
+     * Sets a cell at a given position, updating the sums of the bonuses along the lanes through it.
      *
      * @param row  the row
      * @param col  the column
-     * @param cell the cell
+     * @param cell the cell, or null to empty the position
      */
     public void setCell(int row, int col, Cell cell) {
-        lettersGrid.get(row).set(col, cell);
+        int oldBonus = lettersGrid.bonusAt(row, col);
+        if (cell == null) {
+            lettersGrid.clear(row, col);
+        } else {
+            lettersGrid.set(row, col, cell.getLetter(), cell.getBonus());
+        }
+        bonusSums.update(row, col, oldBonus);
     }
 }
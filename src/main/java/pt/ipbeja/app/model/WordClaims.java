@@ -0,0 +1,105 @@
+package pt.ipbeja.app.model;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WordClaims class.
+ * Keeps which player found each word of a shared board, without locks.
+ * Each word is claimed with a compare-and-set of its owner, so exactly one player gets it even when
+ * several find it at the same time, and the score of each player is kept in its own LongAdder.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class WordClaims {
+    public static final int UNCLAIMED = -1; // Owner of the words no player found yet
+
+    private final AtomicIntegerArray owners; // Player that found each word, by word id
+    private final LongAdder[] scores; // Score of each player
+    private final LongAdder claimed = new LongAdder(); // Number of words found
+
+    /**
+     * Constructor for WordClaims.
+     *
+     * @param wordCount   the number of words
+     * @param playerCount the number of players
+     */
+    public WordClaims(int wordCount, int playerCount) {
+        this.owners = new AtomicIntegerArray(wordCount);
+        for (int id = 0; id < wordCount; id++) {
+            owners.set(id, UNCLAIMED);
+        }
+        this.scores = new LongAdder[playerCount];
+        for (int player = 0; player < playerCount; player++) {
+            scores[player] = new LongAdder();
+        }
+    }
+
+    /**
+     * Claims a word for a player, adding its score to the player if no one found it before.
+     *
+     * @param id     the id of the word
+     * @param player the player
+     * @param score  the score of the word
+     * @return true if the player got the word, false if it was already found
+     * @throws IndexOutOfBoundsException if the player is not one of the players, before the word is claimed
+     */
+    public boolean claim(int id, int player, int score) {
+        Objects.checkIndex(player, scores.length);
+        if (owners.get(id) != UNCLAIMED || !owners.compareAndSet(id, UNCLAIMED, player)) {
+            return false;
+        }
+        scores[player].add(score);
+        claimed.increment();
+        return true;
+    }
+
+    /**
+     * Gets the player that found a word.
+     *
+     * @param id the id of the word
+     * @return the player, or UNCLAIMED
+     */
+    public int ownerOf(int id) {
+        return owners.get(id);
+    }
+
+    /**
+     * Gets the score of a player.
+     *
+     * @param player the player
+     * @return the score
+     */
+    public long scoreOf(int player) {
+        return scores[player].sum();
+    }
+
+    /**
+     * Gets the number of words found.
+     *
+     * @return the number of words found
+     */
+    public int claimedCount() {
+        return claimed.intValue();
+    }
+
+    /**
+     * Checks if all the words were found.
+     *
+     * @return true if all the words were found, false otherwise
+     */
+    public boolean allClaimed() {
+        return claimedCount() == owners.length();
+    }
+
+    /**
+     * Gets the number of players.
+     *
+     * @return the number of players
+     */
+    public int playerCount() {
+        return scores.length;
+    }
+}
@@ -0,0 +1,216 @@
+package pt.ipbeja.app.model;
+
+import java.util.*;
+
+/**
+ * WordDictionary class.
+ * Gives each word of the game an integer id, keeps which words were found in a BitSet
+ * and stores the words in a trie, so a selection can be rejected as soon as its prefix matches no word.
+ * The trie nodes are kept in parallel arrays (first child and next sibling of each node).
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class WordDictionary {
+    public static final int NOT_FOUND = -1; // Id returned for words or nodes that do not exist
+    public static final int ROOT = 0; // Trie node of the empty prefix
+
+    private final List<String> words = new ArrayList<>(); // Words indexed by their id
+    private final Map<String, Integer> ids = new HashMap<>(); // Id of each word
+    private final BitSet found = new BitSet(); // Ids of the words that were found
+    private char[] labels = new char[16]; // Letter of each trie node
+    private int[] firstChild = new int[16]; // First child of each trie node
+    private int[] nextSibling = new int[16]; // Next sibling of each trie node
+    private int[] wordIds = new int[16]; // Id of the word that ends in each trie node
+    private int nodeCount = 0; // Number of trie nodes
+
+    /**
+     * Constructor for WordDictionary.
+     * Repeated words get a single id.
+     *
+     * @param words the words of the game
+     */
+    public WordDictionary(List<String> words) {
+        newNode('\0');
+        for (String word : words) {
+            if (!ids.containsKey(word)) {
+                int id = this.words.size();
+                this.words.add(word);
+                ids.put(word, id);
+                insert(word, id);
+            }
+        }
+    }
+
+    /**
+     * Adds a word to the trie.
+     *
+     * @param word the word
+     * @param id   the id of the word
+     */
+    private void insert(String word, int id) {
+        int node = ROOT;
+        for (int i = 0; i < word.length(); i++) {
+            char letter = word.charAt(i);
+            int next = child(node, letter);
+            if (next == NOT_FOUND) {
+                next = newNode(letter);
+                nextSibling[next] = firstChild[node];
+                firstChild[node] = next;
+            }
+            node = next;
+        }
+        wordIds[node] = id;
+    }
+
+    /**
+     * Creates a trie node, growing the arrays when needed.
+     *
+     * @param letter the letter of the node
+     * @return the new node
+     */
+    private int newNode(char letter) {
+        if (nodeCount == labels.length) {
+            int capacity = labels.length * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            wordIds = Arrays.copyOf(wordIds, capacity);
+        }
+        labels[nodeCount] = letter;
+        firstChild[nodeCount] = NOT_FOUND;
+        nextSibling[nodeCount] = NOT_FOUND;
+        wordIds[nodeCount] = NOT_FOUND;
+        return nodeCount++;
+    }
+
+    /**
+     * Gets the number of distinct words.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * Gets the word with a given id.
+     *
+     * @param id the id
+     * @return the word
+     */
+    public String word(int id) {
+        return words.get(id);
+    }
+
+    /**
+     * Gets all the distinct words, indexed by their id.
+     *
+     * @return the words
+     */
+    public List<String> words() {
+        return Collections.unmodifiableList(words);
+    }
+
+    /**
+     * Gets a fingerprint of the words (64 bit FNV-1a hash of the sorted words),
+     * which is the same for two games with the same words in any order.
+     *
+     * @return the fingerprint
+     */
+    public long fingerprint() {
+        List<String> sorted = new ArrayList<>(words);
+        Collections.sort(sorted);
+        long hash = 0xcbf29ce484222325L;
+        for (String word : sorted) {
+            for (int i = 0; i < word.length(); i++) {
+                hash = (hash ^ word.charAt(i)) * 0x100000001b3L;
+            }
+            hash = (hash ^ '\n') * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the id of a word.
+     *
+     * @param word the word
+     * @return the id, or NOT_FOUND if the word is not in the dictionary
+     */
+    public int idOf(String word) {
+        return ids.getOrDefault(word, NOT_FOUND);
+    }
+
+    /**
+     * Checks if a word was found.
+     *
+     * @param id the id of the word
+     * @return true if the word was found, false otherwise
+     */
+    public boolean isFound(int id) {
+        return found.get(id);
+    }
+
+    /**
+     * Marks a word as found.
+     *
+     * @param id the id of the word
+     * @return true if the word was not found before, false otherwise
+     */
+    public boolean markFound(int id) {
+        if (found.get(id)) {
+            return false;
+        }
+        found.set(id);
+        return true;
+    }
+
+    /**
+     * Gets the number of words found.
+     *
+     * @return the number of words found
+     */
+    public int foundCount() {
+        return found.cardinality();
+    }
+
+    /**
+     * Gets the child of a trie node for a letter.
+     *
+     * @param node   the node
+     * @param letter the letter
+     * @return the child node, or NOT_FOUND if no word continues with that letter
+     */
+    public int child(int node, char letter) {
+        for (int next = firstChild[node]; next != NOT_FOUND; next = nextSibling[next]) {
+            if (labels[next] == letter) {
+                return next;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Gets the id of the word that ends in a trie node.
+     *
+     * @param node the node
+     * @return the id of the word, or NOT_FOUND if no word ends there
+     */
+    public int wordAt(int node) {
+        return wordIds[node];
+    }
+
+    /**
+     * Checks if any word starts with a prefix.
+     *
+     * @param prefix the prefix
+     * @return true if some word starts with the prefix, false otherwise
+     */
+    public boolean hasPrefix(CharSequence prefix) {
+        int node = ROOT;
+        for (int i = 0; i < prefix.length() && node != NOT_FOUND; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        return node != NOT_FOUND;
+    }
+}
@@ -0,0 +1,424 @@
+package pt.ipbeja.app.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * WordListLoader class.
+ * Reads a words file, one word per line, by mapping it into memory a window at a time and decoding it as UTF-8.
+ * Each line is trimmed, upper-cased and checked against the maximum length while it is still bytes or chars;
+ * repeated words are found in a hash set over the decoded letters, so only the distinct words become Strings.
+ * The loader can also keep a random sample of the words instead of all of them, using memory only for the sample.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class WordListLoader {
+    private static final int WINDOW_SIZE = 64 << 20; // Bytes of the file mapped at a time
+    private static final int MAX_WORD_BYTES = 1 << 16; // Longer lines are skipped without being decoded
+
+    private final int maxLength; // Maximum length of the words kept
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder(); // Decoder for the lines with non ASCII letters
+    private char[] letters = new char[64]; // Letters of the line being read
+    private char[] pool = new char[1024]; // Letters of the distinct words, one after the other
+    private int poolSize = 0; // Number of letters in the pool
+    private int[] starts = new int[64]; // Start of each distinct word in the pool
+    private int[] lengths = new int[64]; // Length of each distinct word
+    private int[] hashes = new int[64]; // Hash of each distinct word
+    private int wordCount = 0; // Number of distinct words
+    private int[] table = new int[128]; // Hash table of the distinct words (index + 1, or 0 if the slot is free)
+    private boolean skippingLine = false; // Whether the rest of a line longer than a window is being skipped
+    private IntConsumer sink; // Receives each word read, as the length of the word in the letters buffer
+
+    /**
+     * Constructor for WordListLoader.
+     *
+     * @param maxLength the maximum length of the words kept, usually the longest side of the board
+     */
+    public WordListLoader(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Reads the distinct words of a file, in the order they first appear.
+     * Blank lines and words longer than the maximum length are skipped.
+     *
+     * @param file the words file
+     * @return the words, trimmed and upper-cased
+     * @throws IOException if the file cannot be read or is not valid UTF-8
+     */
+    public List<String> load(Path file) throws IOException {
+        wordCount = 0;
+        poolSize = 0;
+        Arrays.fill(table, 0);
+        scan(file, this::add);
+        List<String> words = new ArrayList<>(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            words.add(new String(pool, starts[i], lengths[i]));
+        }
+        return words;
+    }
+
+    /**
+     * Reads a random sample of the words of a file in a single pass (reservoir sampling).
+     * Each word read replaces a random word of the sample with the probability that keeps every word equally likely,
+     * so memory depends on the size of the sample and not on the size of the file.
+     * When sampling by length there is one sample per word length, and the words are then taken from each length
+     * in turn, so short and long words are equally represented even if the file has many more of one kind.
+     * Each length keeps at most count / (number of lengths seen so far) words, rounded up, so the samples together
+     * hold about count words; when a new length appears the samples already kept drop random words to the new size.
+     * The lengths are taken in a random order, so when count is smaller than the number of lengths
+     * the words do not all come from the shortest lengths.
+     * Repeated words are not kept twice in the sample, but a word repeated in the file is offered once per line,
+     * so it is more likely to be sampled than a word that appears once
+     * (counting only the distinct words would need all of them in memory).
+     *
+     * @param file     the words file
+     * @param count    the number of words to keep
+     * @param byLength whether to keep the same number of words of each length
+     * @param random   the random number generator
+     * @return the sampled words, trimmed and upper-cased, or all the words if the file has fewer
+     * @throws IOException if the file cannot be read or is not valid UTF-8
+     */
+    public List<String> sample(Path file, int count, boolean byLength, RandomGenerator random) throws IOException {
+        Map<Integer, Reservoir> reservoirs = new TreeMap<>();
+        scan(file, length -> {
+            Reservoir reservoir = reservoirs.get(byLength ? length : 0);
+            if (reservoir == null) {
+                int capacity = (count + reservoirs.size()) / (reservoirs.size() + 1); // count / lengths, rounded up
+                for (Reservoir other : reservoirs.values()) {
+                    other.shrink(capacity, random);
+                }
+                reservoir = new Reservoir(capacity);
+                reservoirs.put(byLength ? length : 0, reservoir);
+            }
+            reservoir.offer(letters, length, random);
+        });
+
+        List<List<String>> strata = new ArrayList<>();
+        for (Reservoir reservoir : reservoirs.values()) {
+            strata.add(reservoir.shuffled(random));
+        }
+        return roundRobin(strata, count, random);
+    }
+
+    /**
+     * Merges the samples of each length, taking one word of each length in turn, in a random order of the lengths.
+     *
+     * @param strata the sample of each length, each already in a random order; the list is reordered
+     * @param count  the number of words to take
+     * @param random the random number generator
+     * @return the words, or all the words of the samples if they have fewer
+     */
+    static List<String> roundRobin(List<List<String>> strata, int count, RandomGenerator random) {
+        for (int i = strata.size() - 1; i > 0; i--) { // Random order of the lengths
+            Collections.swap(strata, i, random.nextInt(i + 1));
+        }
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; words.size() < count; i++) {
+            boolean taken = false;
+            for (List<String> stratum : strata) {
+                if (i < stratum.size() && words.size() < count) {
+                    words.add(stratum.get(i));
+                    taken = true;
+                }
+            }
+            if (!taken) {
+                break;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Reads the lines of a file, giving each word kept to a sink.
+     *
+     * @param file the words file
+     * @param sink receives the length of each word, whose letters are in the letters buffer
+     * @throws IOException if the file cannot be read or is not valid UTF-8
+     */
+    private void scan(Path file, IntConsumer sink) throws IOException {
+        this.sink = sink;
+        this.skippingLine = false;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(WINDOW_SIZE, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+                int consumed = readLines(window, length, position == 0, last);
+                position += (consumed == 0) ? length : consumed;
+                skippingLine = (consumed == 0 && !last);
+            }
+        }
+    }
+
+    /**
+     * Reads the complete lines of a window.
+     *
+     * @param window the mapped window
+     * @param length the number of bytes of the window
+     * @param first  whether the window is at the start of the file
+     * @param last   whether the window reaches the end of the file
+     * @return the number of bytes read, up to the end of the last complete line, or 0 if the window has no line end
+     * @throws IOException if a line is not valid UTF-8
+     */
+    private int readLines(ByteBuffer window, int length, boolean first, boolean last) throws IOException {
+        int lineStart = 0;
+        if (first && length >= 3 && window.get(0) == (byte) 0xEF && window.get(1) == (byte) 0xBB && window.get(2) == (byte) 0xBF) {
+            lineStart = 3; // Byte order mark
+        }
+        for (int i = lineStart; i < length; i++) {
+            if (window.get(i) == '\n') {
+                if (skippingLine) {
+                    skippingLine = false;
+                } else {
+                    readLine(window, lineStart, i);
+                }
+                lineStart = i + 1;
+            }
+        }
+        if (last) {
+            if (lineStart < length && !skippingLine) {
+                readLine(window, lineStart, length);
+            }
+            return length;
+        }
+        return lineStart;
+    }
+
+    /**
+     * Reads a line, giving its word to the sink if it is not blank and not too long.
+     *
+     * @param window the mapped window
+     * @param from   the first byte of the line
+     * @param to     the end of the line (exclusive)
+     * @throws IOException if the line is not valid UTF-8
+     */
+    private void readLine(ByteBuffer window, int from, int to) throws IOException {
+        while (from < to && (window.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        while (to > from && (window.get(to - 1) & 0xFF) <= ' ') {
+            to--;
+        }
+        if (from == to || to - from > MAX_WORD_BYTES || charLength(window, from, to) > maxLength) {
+            return;
+        }
+        int length = decode(window, from, to);
+        for (int i = 0; i < length; i++) {
+            letters[i] = Character.toUpperCase(letters[i]);
+        }
+        sink.accept(length);
+    }
+
+    /**
+     * Counts the chars a line decodes to, without decoding it.
+     * Continuation bytes add nothing and four byte sequences become two chars.
+     *
+     * @param window the mapped window
+     * @param from   the first byte of the line
+     * @param to     the end of the line (exclusive)
+     * @return the number of chars
+     */
+    private static int charLength(ByteBuffer window, int from, int to) {
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            int b = window.get(i) & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                length += ((b & 0xF8) == 0xF0) ? 2 : 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Decodes a line into the letters buffer, converting ASCII bytes directly.
+     *
+     * @param window the mapped window
+     * @param from   the first byte of the line
+     * @param to     the end of the line (exclusive)
+     * @return the number of letters decoded
+     * @throws IOException if the line is not valid UTF-8
+     */
+    private int decode(ByteBuffer window, int from, int to) throws IOException {
+        int nBytes = to - from;
+        if (letters.length < nBytes) {
+            letters = new char[Math.max(nBytes, letters.length * 2)];
+        }
+        int i = 0;
+        while (i < nBytes && window.get(from + i) >= 0) {
+            letters[i] = (char) window.get(from + i);
+            i++;
+        }
+        if (i == nBytes) {
+            return nBytes;
+        }
+        CharBuffer out = CharBuffer.wrap(letters);
+        decoder.reset();
+        CoderResult result = decoder.decode(window.slice(from, nBytes), out, true);
+        if (!result.isUnderflow()) {
+            result.throwException();
+        }
+        result = decoder.flush(out);
+        if (!result.isUnderflow()) {
+            result.throwException();
+        }
+        return out.position();
+    }
+
+    /**
+     * Adds the word in the letters buffer if it is not repeated.
+     *
+     * @param length the length of the word
+     */
+    private void add(int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + letters[i];
+        }
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] != 0) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && lengths[id] == length
+                    && Arrays.equals(pool, starts[id], starts[id] + length, letters, 0, length)) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (wordCount == starts.length) {
+            starts = Arrays.copyOf(starts, wordCount * 2);
+            lengths = Arrays.copyOf(lengths, wordCount * 2);
+            hashes = Arrays.copyOf(hashes, wordCount * 2);
+        }
+        if (poolSize + length > pool.length) {
+            pool = Arrays.copyOf(pool, Math.max(poolSize + length, pool.length * 2));
+        }
+        System.arraycopy(letters, 0, pool, poolSize, length);
+        starts[wordCount] = poolSize;
+        lengths[wordCount] = length;
+        hashes[wordCount] = hash;
+        poolSize += length;
+        wordCount++;
+        table[slot] = wordCount;
+        if (wordCount * 2 > table.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * Doubles the hash table, keeping it at most half full.
+     */
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int id = 0; id < wordCount; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+    }
+
+    /**
+     * Spreads the bits of a hash, so words with close hashes do not fall in neighbouring slots.
+     *
+     * @param hash the hash
+     * @return the spread hash
+     */
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Reservoir class.
+     * Random sample of fixed size of the words offered to it.
+     */
+    private static class Reservoir {
+        private int capacity; // Size of the sample
+        private final List<String> words = new ArrayList<>(); // Words in the sample
+        private final Set<String> kept = new HashSet<>(); // Words in the sample, to skip repeated words
+        private long seen = 0; // Number of words offered, counting each repetition of a word
+
+        /**
+         * Constructor for Reservoir.
+         *
+         * @param capacity the size of the sample
+         */
+        Reservoir(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Offers a word to the sample.
+         * The String is only created if the word enters the sample.
+         *
+         * @param letters the letters of the word
+         * @param length  the length of the word
+         * @param random  the random number generator
+         */
+        void offer(char[] letters, int length, RandomGenerator random) {
+            seen++;
+            long slot = (words.size() < capacity) ? words.size() : random.nextLong(seen);
+            if (slot >= capacity) {
+                return;
+            }
+            String word = new String(letters, 0, length);
+            if (!kept.add(word)) {
+                return;
+            }
+            if (slot == words.size()) {
+                words.add(word);
+            } else {
+                kept.remove(words.set((int) slot, word));
+            }
+        }
+
+        /**
+         * Makes the sample smaller, dropping random words.
+         * A random part of a uniform sample is still a uniform sample, so offering continues as before.
+         *
+         * @param newCapacity the new size of the sample
+         * @param random      the random number generator
+         */
+        void shrink(int newCapacity, RandomGenerator random) {
+            while (words.size() > newCapacity) {
+                int index = random.nextInt(words.size());
+                String dropped = words.get(index);
+                words.set(index, words.get(words.size() - 1));
+                words.remove(words.size() - 1);
+                kept.remove(dropped);
+            }
+            capacity = Math.min(capacity, newCapacity);
+        }
+
+        /**
+         * Gets the words of the sample in a random order.
+         *
+         * @param random the random number generator
+         * @return the words
+         */
+        List<String> shuffled(RandomGenerator random) {
+            List<String> list = new ArrayList<>(words);
+            for (int i = list.size() - 1; i > 0; i--) {
+                Collections.swap(list, i, random.nextInt(i + 1));
+            }
+            return list;
+        }
+    }
+}
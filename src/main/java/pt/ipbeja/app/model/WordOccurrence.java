@@ -0,0 +1,10 @@
+package pt.ipbeja.app.model;
+
+/**
+ * Occurrence of a word on the board.
+ * Represents the id of the word, the word and the positions of its first and last letters.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public record WordOccurrence(int wordId, String word, Position start, Position end) {}
@@ -0,0 +1,31 @@
+package pt.ipbeja.app.model;
+
+/**
+ * Placement of a word on the board.
+ * Represents the word, the position of its first letter and its direction.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public record WordPlacement(String word, Position start, Direction direction) {
+
+    /**
+     * Gets the position of a letter of the word.
+     *
+     * @param letterIndex the index of the letter in the word
+     * @return the position of the letter
+     */
+    public Position positionOf(int letterIndex) {
+        return new Position(start.line() + letterIndex * direction.lineStep(),
+                start.col() + letterIndex * direction.colStep());
+    }
+
+    /**
+     * Gets the position of the last letter of the word.
+     *
+     * @return the position of the last letter
+     */
+    public Position end() {
+        return positionOf(word.length() - 1);
+    }
+}
@@ -0,0 +1,35 @@
+package pt.ipbeja.app.model;
+
+import java.util.List;
+
+/**
+ * WordPlacementException class.
+ * Thrown when the words of a game cannot all be placed on the board.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class WordPlacementException extends RuntimeException {
+    private static final long serialVersionUID = 1L; // Version of the serialized form
+
+    private final List<String> unplacedWords; // Words that could not be placed
+
+    /**
+     * Constructor for WordPlacementException.
+     *
+     * @param unplacedWords the words that could not be placed
+     */
+    public WordPlacementException(List<String> unplacedWords) {
+        super("Não foi possível colocar as palavras no tabuleiro: " + String.join(", ", unplacedWords));
+        this.unplacedWords = List.copyOf(unplacedWords);
+    }
+
+    /**
+     * Gets the words that could not be placed.
+     *
+     * @return the unplaced words
+     */
+    public List<String> getUnplacedWords() {
+        return unplacedWords;
+    }
+}
@@ -0,0 +1,282 @@
+package pt.ipbeja.app.model;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * WordPlacer class.
+ * Places the words of a game on the board with a backtracking search.
+ * The most constrained words (the ones with fewer slots on the board) are placed first,
+ * and the slots of each word are visited in a random order, each one at most once.
+ * The search restarts from scratch every RESTART_BACKTRACKS dead ends and gives up after MAX_BACKTRACKS,
+ * so it always ends with a complete layout or a WordPlacementException.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class WordPlacer {
+    public static final int MAX_BACKTRACKS = 10_000; // Number of dead ends before giving up
+    public static final int RESTART_BACKTRACKS = 500; // Number of dead ends before restarting with new random orders
+    public static final int MISSES_BEFORE_COUNT = 64; // Slots tried for a word before checking if any slot is left
+
+    private final LetterGrid grid; // Grid where the words are placed
+    private final List<Direction> directions; // Directions allowed for the words
+    private final RandomGenerator random; // Random number generator for the slots and bonuses
+    private final boolean useBitboard; // Whether the empty cells are indexed with bitboards instead of free runs
+    private SlotIndex slots; // Index of the empty cells, updated as words are placed and removed
+
+    /**
+     * Constructor for WordPlacer.
+     *
+     * @param grid       the grid where the words are placed
+     * @param directions the directions allowed for the words
+     * @param random     the random number generator
+     */
+    public WordPlacer(LetterGrid grid, List<Direction> directions, RandomGenerator random) {
+        this(grid, directions, random, false);
+    }
+
+    /**
+     * Constructor for WordPlacer choosing how the empty cells are indexed.
+     * The free run index answers each slot with one read but uses two bytes per cell and direction;
+     * the bitboard index uses one bit per cell and direction and finds dead ends on dense boards much faster.
+     *
+     * @param grid        the grid where the words are placed
+     * @param directions  the directions allowed for the words
+     * @param random      the random number generator
+     * @param useBitboard whether to index the empty cells with bitboards
+     */
+    public WordPlacer(LetterGrid grid, List<Direction> directions, RandomGenerator random, boolean useBitboard) {
+        this.grid = grid;
+        this.directions = directions;
+        this.random = random;
+        this.useBitboard = useBitboard;
+    }
+
+    /**
+     * Places all the words on the grid.
+     *
+     * @param words the words to place
+     * @return the placement of each word, in the order they were placed
+     * @throws WordPlacementException if the words cannot all be placed
+     */
+    public List<WordPlacement> placeWords(List<String> words) {
+        List<String> order = orderByConstraint(words);
+        List<String> impossible = new ArrayList<>();
+        for (String word : order) {
+            if (countSlots(word.length()) == 0) {
+                impossible.add(word);
+            }
+        }
+        if (!impossible.isEmpty()) {
+            throw new WordPlacementException(impossible);
+        }
+        int maxLength = 0;
+        for (String word : order) {
+            maxLength = Math.max(maxLength, word.length());
+        }
+        slots = useBitboard ? new BitboardIndex(grid, directions) : new FreeRunIndex(grid, directions, maxLength);
+
+        int nWords = order.size();
+        long nSlots = (long) grid.nLines() * grid.nCols() * directions.size();
+        long[] offsets = new long[nWords]; // Random first slot of each word
+        long[] strides = new long[nWords]; // Random step between the slots of each word
+        long[] visited = new long[nWords]; // Number of slots already tried for each word
+        WordPlacement[] placed = new WordPlacement[nWords];
+        int depth = 0;
+        int deepest = 0;
+        int backtracks = 0;
+
+        if (nWords > 0) {
+            startSlots(0, nSlots, offsets, strides, visited);
+        }
+        while (depth < nWords) {
+            String word = order.get(depth);
+            placed[depth] = null;
+            while (placed[depth] == null && visited[depth] < nSlots) {
+                if (visited[depth] == MISSES_BEFORE_COUNT && slots.countFits(word.length()) == 0) {
+                    break; // Dead end: no slot is left for the word
+                }
+                long slot = (offsets[depth] + visited[depth] * strides[depth]) % nSlots;
+                visited[depth]++;
+                placed[depth] = tryPlaceWord(word, slot);
+            }
+
+            if (placed[depth] != null) {
+                depth++;
+                deepest = Math.max(deepest, depth);
+                if (depth < nWords) {
+                    startSlots(depth, nSlots, offsets, strides, visited);
+                }
+            } else {
+                backtracks++;
+                if (depth == 0 || backtracks > MAX_BACKTRACKS) {
+                    removeWords(placed, depth);
+                    throw new WordPlacementException(order.subList(deepest, nWords));
+                }
+                if (backtracks % RESTART_BACKTRACKS == 0) {
+                    removeWords(placed, depth);
+                    depth = 0;
+                    startSlots(0, nSlots, offsets, strides, visited);
+                } else {
+                    depth--;
+                    removeWord(placed[depth]);
+                }
+            }
+        }
+        return List.of(placed);
+    }
+
+    /**
+     * Orders the words from the most to the least constrained.
+     * Words with fewer slots on the empty board come first, which usually means longer words first.
+     *
+     * @param words the words to order
+     * @return the ordered words
+     */
+    private List<String> orderByConstraint(List<String> words) {
+        List<String> order = new ArrayList<>(words);
+        order.sort(Comparator.comparingLong((String word) -> countSlots(word.length()))
+                .thenComparing(Comparator.comparingInt(String::length).reversed()));
+        return order;
+    }
+
+    /**
+     * Counts the slots where a word fits on the empty grid.
+     *
+     * @param wordLength the length of the word
+     * @return the number of slots
+     */
+    private long countSlots(int wordLength) {
+        if (wordLength == 0) {
+            return 0;
+        }
+        long count = 0;
+        for (Direction direction : directions) {
+            long lines = grid.nLines() - (long) direction.lineStep() * (wordLength - 1);
+            long cols = grid.nCols() - (long) Math.abs(direction.colStep()) * (wordLength - 1);
+            if (lines > 0 && cols > 0) {
+                count += lines * cols;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Starts a new random visiting order of the slots for the word at a given depth.
+     * The order visits slot (offset + i * stride) mod nSlots for each i, which goes through
+     * every slot exactly once because the stride and the number of slots have no common divisor.
+     *
+     * @param depth   the depth of the word in the search
+     * @param nSlots  the number of slots
+     * @param offsets the first slot of each word
+     * @param strides the step between the slots of each word
+     * @param visited the number of slots already tried for each word
+     */
+    private void startSlots(int depth, long nSlots, long[] offsets, long[] strides, long[] visited) {
+        long stride = 1;
+        if (nSlots > 1) {
+            do {
+                stride = 1 + random.nextLong(nSlots - 1);
+            } while (gcd(stride, nSlots) != 1);
+        }
+        offsets[depth] = random.nextLong(nSlots);
+        strides[depth] = stride;
+        visited[depth] = 0;
+    }
+
+    /**
+     * Computes the greatest common divisor of two numbers.
+     *
+     * @param a the first number
+     * @param b the second number
+     * @return the greatest common divisor
+     */
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Tries to place a word in a slot.
+     *
+     * @param word the word to place
+     * @param slot the slot, which encodes the starting cell and the direction
+     * @return the placement of the word, or null if the word does not fit in the slot
+     */
+    private WordPlacement tryPlaceWord(String word, long slot) {
+        Direction direction = directions.get((int) (slot % directions.size()));
+        int cell = (int) (slot / directions.size());
+        int line = cell / grid.nCols();
+        int col = cell % grid.nCols();
+        if (!canPlaceWordAtPosition(word, line, col, direction)) {
+            return null;
+        }
+        distributeWord(word, line, col, direction);
+        return new WordPlacement(word, new Position(line, col), direction);
+    }
+
+    /**
+     * Checks if a word can be placed at a given position.
+     * The slot index makes this a single lookup or a few mask operations.
+     *
+     * @param word      the word to place
+     * @param line      the line of the first letter
+     * @param col       the column of the first letter
+     * @param direction the direction of the word
+     * @return true if the word can be placed, false otherwise
+     */
+    private boolean canPlaceWordAtPosition(String word, int line, int col, Direction direction) {
+        return slots.fits(line, col, direction, word.length());
+    }
+
+    /**
+     * Distributes a word on the grid.
+     *
+     * @param word      the word to distribute
+     * @param line      the line of the first letter
+     * @param col       the column of the first letter
+     * @param direction the direction of the word
+     */
+    private void distributeWord(String word, int line, int col, Direction direction) {
+        for (int j = 0; j < word.length(); j++) {
+            int bonus = (random.nextDouble() < 0.2) ? 5 : 0; // Assign a bonus of 5 with a 20% probability
+            int letterLine = line + j * direction.lineStep();
+            int letterCol = col + j * direction.colStep();
+            grid.set(letterLine, letterCol, word.charAt(j), bonus);
+            slots.occupy(letterLine, letterCol);
+        }
+    }
+
+    /**
+     * Removes the first words placed by the search from the grid.
+     *
+     * @param placed the placements of the words
+     * @param count  the number of words to remove
+     */
+    private void removeWords(WordPlacement[] placed, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            removeWord(placed[i]);
+        }
+    }
+
+    /**
+     * Removes a word from the grid when the search backtracks.
+     *
+     * @param placement the placement of the word
+     */
+    private void removeWord(WordPlacement placement) {
+        Position start = placement.start();
+        Direction direction = placement.direction();
+        for (int j = 0; j < placement.word().length(); j++) {
+            int letterLine = start.line() + j * direction.lineStep();
+            int letterCol = start.col() + j * direction.colStep();
+            grid.clear(letterLine, letterCol);
+            slots.release(letterLine, letterCol);
+        }
+    }
+}
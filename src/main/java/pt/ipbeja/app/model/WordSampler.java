@@ -0,0 +1,73 @@
+package pt.ipbeja.app.model;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * WordSampler class.
+ * Samples the words of many games from a word list read once into memory, instead of reading the file for each game.
+ * The words are grouped by length when the sampler is created, and each sample only picks the words it keeps
+ * (Floyd's algorithm), so a sample takes time proportional to its size and not to the size of the list.
+ * The sampler is only read after it is created, so several threads can sample from it at the same time.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class WordSampler {
+    private final List<List<String>> strata; // Words of each length, from the shortest, or all the words in a single list
+
+    /**
+     * Constructor for WordSampler.
+     *
+     * @param words    the words to sample from
+     * @param byLength whether to sample the same number of words of each length
+     */
+    public WordSampler(List<String> words, boolean byLength) {
+        Map<Integer, List<String>> groups = new TreeMap<>();
+        for (String word : new LinkedHashSet<>(words)) {
+            groups.computeIfAbsent(byLength ? word.length() : 0, key -> new ArrayList<>()).add(word);
+        }
+        this.strata = List.copyOf(groups.values());
+    }
+
+    /**
+     * Samples words, taking them from each length in turn and in a random order of the lengths,
+     * like WordListLoader.sample; a length with fewer words than its share leaves more words to the others.
+     *
+     * @param count  the number of words
+     * @param random the random number generator
+     * @return the sampled words, or all the words if there are fewer
+     */
+    public List<String> sample(int count, RandomGenerator random) {
+        List<List<String>> picked = new ArrayList<>(strata.size());
+        for (List<String> stratum : strata) {
+            picked.add(pick(stratum, Math.min(count, stratum.size()), random));
+        }
+        return WordListLoader.roundRobin(picked, count, random);
+    }
+
+    /**
+     * Picks different words of a list at random, in a random order.
+     *
+     * @param words  the list
+     * @param k      the number of words
+     * @param random the random number generator
+     * @return the words
+     */
+    private static List<String> pick(List<String> words, int k, RandomGenerator random) {
+        Set<Integer> chosen = new HashSet<>();
+        List<String> picked = new ArrayList<>(k);
+        for (int j = words.size() - k; j < words.size(); j++) {
+            int index = random.nextInt(j + 1);
+            if (!chosen.add(index)) {
+                index = j;
+                chosen.add(j);
+            }
+            picked.add(words.get(index));
+        }
+        for (int i = picked.size() - 1; i > 0; i--) { // Floyd's algorithm does not choose the order
+            Collections.swap(picked, i, random.nextInt(i + 1));
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,333 @@
+package pt.ipbeja.app.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * WordSolver class.
+ * Finds every occurrence of every word on the board, in all eight directions.
+ * Each line, column and diagonal of the board is read once in each way through an Aho-Corasick automaton,
+ * so the time grows with the size of the board and the number of occurrences, not with the number of words.
+ * Lanes are independent, so the scans can also run in parallel on a ForkJoinPool.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class WordSolver {
+    private static final int LANES_PER_TASK = 8; // Lanes scanned by a parallel task without splitting it further
+
+    private final LetterGrid grid; // Grid to search
+    private final List<String> words; // Words to find, indexed by their id
+    private final AhoCorasick automaton; // Automaton over all the words
+    private final boolean[] palindromes; // Whether each word reads the same both ways
+
+    /**
+     * Constructor for WordSolver for the board and words of a game.
+     *
+     * @param model the game model
+     */
+    public WordSolver(WSModel model) {
+        this(model.grid(), model.dictionary().words());
+    }
+
+    /**
+     * Constructor for WordSolver.
+     *
+     * @param grid  the grid to search
+     * @param words the words to find, where the index of each word is its id
+     */
+    public WordSolver(LetterGrid grid, List<String> words) {
+        this.grid = grid;
+        this.words = words;
+        this.automaton = new AhoCorasick(words);
+        this.palindromes = new boolean[words.size()];
+        for (int id = 0; id < words.size(); id++) {
+            String word = words.get(id);
+            palindromes[id] = new StringBuilder(word).reverse().toString().equals(word);
+        }
+    }
+
+    /**
+     * Finds all the occurrences of the words.
+     *
+     * @return the occurrences
+     */
+    public List<WordOccurrence> findAll() {
+        List<WordOccurrence> occurrences = new ArrayList<>();
+        for (Direction direction : Direction.values()) {
+            for (int lane = 0; lane < nLanes(direction); lane++) {
+                scanLane(direction, lane, occurrences, null);
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Counts the occurrences of each word.
+     *
+     * @return the number of occurrences, indexed by the id of the word
+     */
+    public int[] countOccurrences() {
+        int[] counts = new int[words.size()];
+        for (Direction direction : Direction.values()) {
+            for (int lane = 0; lane < nLanes(direction); lane++) {
+                scanLane(direction, lane, null, id -> counts[id]++);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Finds all the occurrences of the words in parallel on the common pool.
+     *
+     * @return the occurrences
+     */
+    public List<WordOccurrence> findAllParallel() {
+        return findAllParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds all the occurrences of the words in parallel.
+     * Each task keeps its own list, and the lists are joined as the tasks finish.
+     *
+     * @param pool the pool that runs the scan
+     * @return the occurrences
+     */
+    public List<WordOccurrence> findAllParallel(ForkJoinPool pool) {
+        return pool.invoke(new LaneScan(0, totalLanes(), true, null));
+    }
+
+    /**
+     * Counts the occurrences of each word in parallel on the common pool.
+     *
+     * @return the number of occurrences, indexed by the id of the word
+     */
+    public int[] countOccurrencesParallel() {
+        return countOccurrencesParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Counts the occurrences of each word in parallel.
+     * The tasks add to the shared counts with atomic increments, without locks.
+     *
+     * @param pool the pool that runs the scan
+     * @return the number of occurrences, indexed by the id of the word
+     */
+    public int[] countOccurrencesParallel(ForkJoinPool pool) {
+        AtomicIntegerArray counts = new AtomicIntegerArray(words.size());
+        pool.invoke(new LaneScan(0, totalLanes(), false, counts::incrementAndGet));
+        int[] result = new int[words.size()];
+        for (int id = 0; id < result.length; id++) {
+            result[id] = counts.get(id);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if every word occurs exactly once on the board.
+     *
+     * @return true if every word occurs exactly once, false otherwise
+     */
+    public boolean hasUniqueOccurrences() {
+        return allOnce(countOccurrences());
+    }
+
+    /**
+     * Checks if every word occurs exactly once on the board, scanning it in parallel.
+     *
+     * @param pool the pool that runs the scan
+     * @return true if every word occurs exactly once, false otherwise
+     */
+    public boolean hasUniqueOccurrences(ForkJoinPool pool) {
+        return allOnce(countOccurrencesParallel(pool));
+    }
+
+    /**
+     * Checks if all the counts are one.
+     *
+     * @param counts the occurrence counts
+     * @return true if all the counts are one, false otherwise
+     */
+    private static boolean allOnce(int[] counts) {
+        for (int count : counts) {
+            if (count != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of lanes of all the directions.
+     *
+     * @return the number of lanes
+     */
+    private int totalLanes() {
+        int total = 0;
+        for (Direction direction : Direction.values()) {
+            total += nLanes(direction);
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of lanes (lines, columns or diagonals) of a direction.
+     *
+     * @param direction the direction
+     * @return the number of lanes
+     */
+    private int nLanes(Direction direction) {
+        return switch (direction) {
+            case HORIZONTAL -> grid.nLines();
+            case VERTICAL -> grid.nCols();
+            case DIAGONAL_RIGHT, DIAGONAL_LEFT -> grid.nLines() + grid.nCols() - 1;
+        };
+    }
+
+    /**
+     * Reads a lane in both ways through the automaton and reports the words found.
+     * The lanes of a diagonal direction start on the first line and then go down the first
+     * (for ↘) or last (for ↙) column.
+     *
+     * @param direction   the direction of the lane
+     * @param lane        the lane
+     * @param occurrences the list where the occurrences are added, or null
+     * @param onMatch     called with the id of each word found, or null
+     */
+    private void scanLane(Direction direction, int lane, List<WordOccurrence> occurrences, IntConsumer onMatch) {
+        int startLine;
+        int startCol;
+        if (direction == Direction.HORIZONTAL) {
+            startLine = lane;
+            startCol = 0;
+        } else if (direction == Direction.VERTICAL || lane < grid.nCols()) {
+            startLine = 0;
+            startCol = (direction == Direction.DIAGONAL_LEFT) ? grid.nCols() - 1 - lane : lane;
+        } else {
+            startLine = lane - grid.nCols() + 1;
+            startCol = (direction == Direction.DIAGONAL_LEFT) ? grid.nCols() - 1 : 0;
+        }
+        int length = laneLength(startLine, startCol, direction);
+        int lineStep = direction.lineStep();
+        int colStep = direction.colStep();
+
+        for (int way = 0; way < 2; way++) {
+            boolean reversed = way == 1;
+            int node = AhoCorasick.ROOT;
+            for (int i = 0; i < length; i++) {
+                int k = reversed ? length - 1 - i : i; // Index of the cell in the lane
+                node = automaton.step(node, grid.letterAt(startLine + k * lineStep, startCol + k * colStep));
+                int match = (automaton.wordAt(node) != AhoCorasick.NONE) ? node : automaton.nextOutput(node);
+                for (; match != AhoCorasick.NONE; match = automaton.nextOutput(match)) {
+                    int id = automaton.wordAt(match);
+                    if (isDuplicate(id, direction, reversed)) {
+                        continue;
+                    }
+                    if (onMatch != null) {
+                        onMatch.accept(id);
+                    }
+                    if (occurrences != null) {
+                        int first = reversed ? k + automaton.wordLength(id) - 1 : k - automaton.wordLength(id) + 1;
+                        occurrences.add(new WordOccurrence(id, words.get(id),
+                                new Position(startLine + first * lineStep, startCol + first * colStep),
+                                new Position(startLine + k * lineStep, startCol + k * colStep)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if an occurrence was already reported in another scan.
+     * Palindromes are the same both ways, so they are only reported in the forward scan,
+     * and single letters are the same in every direction, so they are only reported horizontally.
+     *
+     * @param id        the id of the word
+     * @param direction the direction of the scan
+     * @param reversed  whether the scan goes backwards
+     * @return true if the occurrence is a duplicate, false otherwise
+     */
+    private boolean isDuplicate(int id, Direction direction, boolean reversed) {
+        if (automaton.wordLength(id) == 1) {
+            return reversed || direction != Direction.HORIZONTAL;
+        }
+        return reversed && palindromes[id];
+    }
+
+    /**
+     * Gets the number of cells of a lane.
+     *
+     * @param startLine the line of the first cell
+     * @param startCol  the column of the first cell
+     * @param direction the direction of the lane
+     * @return the number of cells
+     */
+    private int laneLength(int startLine, int startCol, Direction direction) {
+        int byLines = (direction.lineStep() == 0) ? Integer.MAX_VALUE : grid.nLines() - startLine;
+        int byCols = switch (direction.colStep()) {
+            case 1 -> grid.nCols() - startCol;
+            case -1 -> startCol + 1;
+            default -> Integer.MAX_VALUE;
+        };
+        return Math.min(byLines, byCols);
+    }
+
+    /**
+     * Parallel scan of a range of lanes, numbered through all the directions one after the other.
+     * The range is split in halves until it is small enough to scan in a single task.
+     */
+    private class LaneScan extends RecursiveTask<List<WordOccurrence>> {
+        private static final long serialVersionUID = 1L; // Version of the serialized form, as ForkJoinTask is Serializable
+        private final int from; // First lane of the range
+        private final int to; // Lane after the last one of the range
+        private final boolean collect; // Whether the occurrences are collected in lists
+        private final IntConsumer onMatch; // Called with the id of each word found, or null
+
+        /**
+         * Constructor for LaneScan.
+         *
+         * @param from    the first lane of the range
+         * @param to      the lane after the last one of the range
+         * @param collect whether the occurrences are collected in lists
+         * @param onMatch called with the id of each word found, or null
+         */
+        LaneScan(int from, int to, boolean collect, IntConsumer onMatch) {
+            this.from = from;
+            this.to = to;
+            this.collect = collect;
+            this.onMatch = onMatch;
+        }
+
+        /**
+         * Scans the range, or splits it and joins the results of both halves.
+         *
+         * @return the occurrences found, or an empty list if they are not collected
+         */
+        @Override
+        protected List<WordOccurrence> compute() {
+            if (to - from <= LANES_PER_TASK) {
+                List<WordOccurrence> occurrences = new ArrayList<>();
+                int first = 0; // Number of the first lane of the direction
+                for (Direction direction : Direction.values()) {
+                    int last = first + nLanes(direction);
+                    for (int index = Math.max(from, first); index < Math.min(to, last); index++) {
+                        scanLane(direction, index - first, collect ? occurrences : null, onMatch);
+                    }
+                    first = last;
+                }
+                return occurrences;
+            }
+            int middle = (from + to) >>> 1;
+            LaneScan left = new LaneScan(from, middle, collect, onMatch);
+            left.fork();
+            List<WordOccurrence> right = new LaneScan(middle, to, collect, onMatch).compute();
+            List<WordOccurrence> occurrences = left.join();
+            occurrences.addAll(right);
+            return occurrences;
+        }
+    }
+}
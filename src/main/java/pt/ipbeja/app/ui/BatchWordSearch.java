@@ -0,0 +1,309 @@
+package pt.ipbeja.app.ui;
+
+import pt.ipbeja.app.model.Position;
+import pt.ipbeja.app.model.PuzzleFileWriter;
+import pt.ipbeja.app.model.WSModel;
+import pt.ipbeja.app.model.WordListLoader;
+import pt.ipbeja.app.model.WordPlacement;
+import pt.ipbeja.app.model.WordSampler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+
+/**
+ * BatchWordSearch class.
+ * Command line entry point that generates many puzzles from a words file, without the graphical interface.
+ * The puzzles are generated by a pool of worker threads and written to the output file as they finish,
+ * each one with its board and its answer key.
+ *
+ * Words longer than the longest side of the board are skipped when the file is read.
+ * Each puzzle gets its own seed, taken from a generator started with the seed of the batch,
+ * so the same seed gives the same numbered puzzles whatever the number of threads (only the order in the file may change).
+ *
+ * With --pack the puzzles are saved in the binary puzzle format instead, so the game can load them.
+ * With --sample K each puzzle gets K words sampled from the file, which can then be a whole dictionary;
+ * the file is read once and every puzzle samples from the words in memory.
+ * The text output is written in UTF-8, like the words files are read.
+ *
+ * Usage: BatchWordSearch wordsFile count outputFile [--diagonals] [--size LINESxCOLS] [--threads N] [--seed S]
+ *        [--sample K [--by-length]] [--pack]
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class BatchWordSearch {
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L; // Time between progress messages
+
+    private final List<String> words; // Words of every puzzle, when the words are not sampled
+    private final WordSampler sampler; // Words of the dictionary the words of each puzzle are sampled from, or null
+    private final int sampleSize; // Number of words sampled for each puzzle
+    private final boolean withDiagonals; // Whether diagonals are allowed
+    private final int nLines; // Number of lines of each board
+    private final int nCols; // Number of columns of each board
+    private final int threads; // Number of worker threads
+    private final long seed; // Seed of the batch, from which the seed of each puzzle is taken
+
+    /**
+     * Constructor for BatchWordSearch.
+     *
+     * @param words         the words of every puzzle
+     * @param withDiagonals whether diagonals are allowed
+     * @param nLines        the number of lines of each board
+     * @param nCols         the number of columns of each board
+     * @param threads       the number of worker threads
+     * @param seed          the seed of the batch
+     */
+    public BatchWordSearch(List<String> words, boolean withDiagonals, int nLines, int nCols, int threads, long seed) {
+        this(List.copyOf(words), null, 0, withDiagonals, nLines, nCols, threads, seed);
+    }
+
+    /**
+     * Constructor for BatchWordSearch where the words of each puzzle are sampled from a dictionary.
+     * The dictionary is read once, keeping only the words that fit on the board.
+     *
+     * @param dictionary    the dictionary file
+     * @param sampleSize    the number of words sampled for each puzzle
+     * @param byLength      whether to sample the same number of words of each length
+     * @param withDiagonals whether diagonals are allowed
+     * @param nLines        the number of lines of each board
+     * @param nCols         the number of columns of each board
+     * @param threads       the number of worker threads
+     * @param seed          the seed of the batch
+     * @throws IOException if the dictionary cannot be read
+     */
+    public BatchWordSearch(Path dictionary, int sampleSize, boolean byLength, boolean withDiagonals, int nLines, int nCols,
+                           int threads, long seed) throws IOException {
+        this(List.of(), new WordSampler(new WordListLoader(Math.max(nLines, nCols)).load(dictionary), byLength), sampleSize,
+                withDiagonals, nLines, nCols, threads, seed);
+    }
+
+    /**
+     * Constructor for BatchWordSearch with all the options.
+     *
+     * @param words         the words of every puzzle, when the words are not sampled
+     * @param sampler       the words of the dictionary, or null
+     * @param sampleSize    the number of words sampled for each puzzle
+     * @param withDiagonals whether diagonals are allowed
+     * @param nLines        the number of lines of each board
+     * @param nCols         the number of columns of each board
+     * @param threads       the number of worker threads
+     * @param seed          the seed of the batch
+     */
+    private BatchWordSearch(List<String> words, WordSampler sampler, int sampleSize, boolean withDiagonals,
+                            int nLines, int nCols, int threads, long seed) {
+        this.words = words;
+        this.sampler = sampler;
+        this.sampleSize = sampleSize;
+        this.withDiagonals = withDiagonals;
+        this.nLines = nLines;
+        this.nCols = nCols;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /**
+     * Generates the puzzles and writes them to a text file, in UTF-8, in the order they finish.
+     *
+     * @param count      the number of puzzles
+     * @param outputFile the file where the puzzles are written
+     * @throws IOException          if the file cannot be written
+     * @throws ExecutionException   if a puzzle cannot be generated
+     * @throws InterruptedException if the thread is interrupted while waiting for the workers
+     */
+    public void generate(int count, String outputFile) throws IOException, ExecutionException, InterruptedException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(outputFile), StandardCharsets.UTF_8)) {
+            generate(count, true, puzzle -> writer.write(puzzle.text()));
+        }
+    }
+
+    /**
+     * Generates the puzzles and saves them in a file in the binary puzzle format, in the order they finish.
+     *
+     * @param count      the number of puzzles
+     * @param outputFile the file where the puzzles are saved
+     * @throws IOException          if the file cannot be written
+     * @throws ExecutionException   if a puzzle cannot be generated
+     * @throws InterruptedException if the thread is interrupted while waiting for the workers
+     */
+    public void generatePack(int count, String outputFile) throws IOException, ExecutionException, InterruptedException {
+        try (PuzzleFileWriter writer = new PuzzleFileWriter(Path.of(outputFile))) {
+            generate(count, false, puzzle -> writer.append(puzzle.model()));
+        }
+    }
+
+    /**
+     * Generates the puzzles on the worker threads and gives them to the output in the order they finish.
+     * At most a few puzzles per thread wait to be written, so memory does not grow with the number of puzzles.
+     *
+     * @param count    the number of puzzles
+     * @param withText whether the workers also format the puzzles as text
+     * @param output   receives each finished puzzle
+     * @throws IOException          if the output cannot be written
+     * @throws ExecutionException   if a puzzle cannot be generated
+     * @throws InterruptedException if the thread is interrupted while waiting for the workers
+     */
+    private void generate(int count, boolean withText, PuzzleOutput output) throws IOException, ExecutionException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<Puzzle> finished = new ExecutorCompletionService<>(pool);
+        Semaphore pending = new Semaphore(threads * 4);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        long lastProgress = start;
+        try {
+            int submitted = 0;
+            int written = 0;
+            while (written < count) {
+                while (submitted < count && pending.tryAcquire()) {
+                    int number = ++submitted;
+                    long puzzleSeed = seeds.nextLong();
+                    finished.submit(() -> {
+                        WSModel model = createModel(puzzleSeed);
+                        return new Puzzle(model, withText ? formatPuzzle(number, model) : null);
+                    });
+                }
+                output.accept(finished.take().get());
+                pending.release();
+                written++;
+                long now = System.nanoTime();
+                if (now - lastProgress >= PROGRESS_INTERVAL_NANOS || written == count) {
+                    System.err.printf("Gerados %d/%d tabuleiros%n", written, count);
+                    lastProgress = now;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%d tabuleiros em %.2f s (%.1f tabuleiros/s, %d threads)%n",
+                count, seconds, count / seconds, threads);
+    }
+
+    /**
+     * Creates the model of a puzzle, sampling its words from the dictionary if there is one.
+     *
+     * @param puzzleSeed the seed of the puzzle
+     * @return the model
+     */
+    private WSModel createModel(long puzzleSeed) {
+        if (sampler != null) {
+            List<String> sample = sampler.sample(sampleSize, new SplittableRandom(puzzleSeed).split());
+            return new WSModel(sample, withDiagonals, nLines, nCols, puzzleSeed);
+        }
+        return new WSModel(words, withDiagonals, nLines, nCols, puzzleSeed);
+    }
+
+    /**
+     * Formats a puzzle with its board and answer key.
+     *
+     * @param number the number of the puzzle
+     * @param model  the model of the puzzle
+     * @return the text of the puzzle
+     */
+    private static String formatPuzzle(int number, WSModel model) {
+        StringBuilder text = new StringBuilder();
+        text.append("Tabuleiro ").append(number).append(" (semente ").append(model.getSeed()).append(")\n");
+        text.append(model.boardText());
+        text.append("Solução:\n");
+        for (WordPlacement placement : model.getPlacements()) {
+            Position start = placement.start();
+            Position end = placement.end();
+            text.append(String.format("%s (%d, %s) to (%d, %s)%n", placement.word(),
+                    start.line() + 1, Position.columnLabel(start.col()),
+                    end.line() + 1, Position.columnLabel(end.col())));
+        }
+        text.append('\n');
+        return text.toString();
+    }
+
+    /**
+     * Reads the arguments and generates the puzzles.
+     *
+     * @param args the words file, the number of puzzles, the output file and the options
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Uso: BatchWordSearch ficheiroPalavras numero ficheiroSaida [--diagonals] [--size LINHASxCOLUNAS] [--threads N] [--seed S] [--sample K [--by-length]] [--pack]");
+            System.exit(2);
+        }
+        boolean withDiagonals = false;
+        int nLines = WSModel.DEFAULT_BOARD_SIZE;
+        int nCols = WSModel.DEFAULT_BOARD_SIZE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        int sampleSize = 0;
+        boolean byLength = false;
+        boolean pack = false;
+        try {
+            int count = Integer.parseInt(args[1]);
+            for (int i = 3; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--diagonals" -> withDiagonals = true;
+                    case "--size" -> {
+                        String[] size = args[++i].split("x");
+                        nLines = Integer.parseInt(size[0]);
+                        nCols = Integer.parseInt(size[size.length - 1]);
+                    }
+                    case "--threads" -> threads = Math.max(1, Integer.parseInt(args[++i]));
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--sample" -> sampleSize = Integer.parseInt(args[++i]);
+                    case "--by-length" -> byLength = true;
+                    case "--pack" -> pack = true;
+                    default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+            BatchWordSearch batch;
+            if (sampleSize > 0) {
+                batch = new BatchWordSearch(Path.of(args[0]), sampleSize, byLength, withDiagonals, nLines, nCols, threads, seed);
+            } else {
+                List<String> words = new WordListLoader(Math.max(nLines, nCols)).load(Path.of(args[0]));
+                batch = new BatchWordSearch(words, withDiagonals, nLines, nCols, threads, seed);
+            }
+            if (pack) {
+                batch.generatePack(count, args[2]);
+            } else {
+                batch.generate(count, args[2]);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        } catch (ExecutionException e) {
+            System.err.println(e.getCause().getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Argumentos inválidos: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Puzzle generated by a worker.
+     *
+     * @param model the model of the puzzle
+     * @param text  the puzzle formatted as text, or null if it is saved in the binary format
+     */
+    private record Puzzle(WSModel model, String text) {}
+
+    /**
+     * Output that receives the finished puzzles.
+     */
+    @FunctionalInterface
+    private interface PuzzleOutput {
+
+        /**
+         * Writes a finished puzzle.
+         *
+         * @param puzzle the puzzle
+         * @throws IOException if the output cannot be written
+         */
+        void accept(Puzzle puzzle) throws IOException;
+    }
+}
@@ -0,0 +1,285 @@
+package pt.ipbeja.app.ui;
+
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import pt.ipbeja.app.model.Position;
+import pt.ipbeja.app.model.WSModel;
+
+import java.util.function.Consumer;
+
+/**
+ * BoardCanvas class.
+ * Draws the board on a single Canvas instead of one Button per cell, for boards too big for the scene graph.
+ * Only the cells inside the visible part of the board are drawn, a click is turned into a position
+ * with two divisions, and when cells change only the rectangle around them is drawn again.
+ * The letters are read as chars and drawn from a table of one-letter strings, so a repaint creates no objects per cell.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class BoardCanvas extends Region {
+    public static final double CELL_SIZE = 32; // Size of each cell, in pixels
+    public static final double MAX_VIEWPORT = 800; // Preferred size of the visible part of the board, in pixels
+
+    private static final byte PLAIN = 0; // Cell not selected nor part of a found word
+    private static final byte SELECTED = 1; // First cell of the current selection
+    private static final byte FOUND = 2; // Cell of a found word
+    private static final byte FOUND_BONUS = 3; // Cell with a bonus of a found word
+    private static final Color[] COLORS = {Color.WHITE, Color.YELLOW, Color.LIGHTGREEN, Color.ORANGE}; // Color of each state
+    private static final String[] LETTER_TEXTS = letterTexts(); // Text of each Latin-1 letter, accented letters included
+
+    private final WSModel model; // Model of the game, where the letters are read from
+    private final int nLines; // Number of lines of the board
+    private final int nCols; // Number of columns of the board
+    private final byte[] states; // State of each cell, line by line
+    private final Canvas canvas = new Canvas(); // Canvas with the visible part of the board
+    private final ScrollBar horizontalBar = new ScrollBar(); // Scrolls the board horizontally
+    private final ScrollBar verticalBar = new ScrollBar(); // Scrolls the board vertically
+    private Consumer<Position> onCellClicked = position -> {}; // Called with the position of each clicked cell
+    private boolean repaintAll = true; // Whether the whole visible part must be drawn again
+    private boolean repaintScheduled = false; // Whether a repaint is already waiting to run
+    private int dirtyMinLine = Integer.MAX_VALUE; // First line of the rectangle to draw again
+    private int dirtyMaxLine = -1; // Last line of the rectangle to draw again
+    private int dirtyMinCol = Integer.MAX_VALUE; // First column of the rectangle to draw again
+    private int dirtyMaxCol = -1; // Last column of the rectangle to draw again
+
+    /**
+     * Constructor for BoardCanvas.
+     *
+     * @param model the model of the game
+     */
+    public BoardCanvas(WSModel model) {
+        this.model = model;
+        this.nLines = model.nLines();
+        this.nCols = model.nCols();
+        this.states = new byte[nLines * nCols];
+        verticalBar.setOrientation(Orientation.VERTICAL);
+        horizontalBar.valueProperty().addListener((observable, oldValue, newValue) -> scheduleRepaintAll());
+        verticalBar.valueProperty().addListener((observable, oldValue, newValue) -> scheduleRepaintAll());
+        canvas.setOnMouseClicked(event -> {
+            Position position = positionAt(event.getX(), event.getY());
+            if (position != null) {
+                onCellClicked.accept(position);
+            }
+        });
+        canvas.setOnScroll(event -> {
+            horizontalBar.setValue(clamp(horizontalBar.getValue() - event.getDeltaX(), horizontalBar.getMax()));
+            verticalBar.setValue(clamp(verticalBar.getValue() - event.getDeltaY(), verticalBar.getMax()));
+        });
+        getChildren().addAll(canvas, horizontalBar, verticalBar);
+        setPrefSize(Math.min(nCols * CELL_SIZE, MAX_VIEWPORT) + verticalBar.prefWidth(-1),
+                Math.min(nLines * CELL_SIZE, MAX_VIEWPORT) + horizontalBar.prefHeight(-1));
+    }
+
+    /**
+     * Sets what happens when a cell is clicked.
+     *
+     * @param onCellClicked called with the position of the clicked cell
+     */
+    public void setOnCellClicked(Consumer<Position> onCellClicked) {
+        this.onCellClicked = onCellClicked;
+    }
+
+    /**
+     * Gets the position of the cell under a point of the canvas.
+     *
+     * @param x the x coordinate, in the canvas
+     * @param y the y coordinate, in the canvas
+     * @return the position, or null if the point is outside the board
+     */
+    public Position positionAt(double x, double y) {
+        int line = (int) Math.floor((y + verticalBar.getValue()) / CELL_SIZE);
+        int col = (int) Math.floor((x + horizontalBar.getValue()) / CELL_SIZE);
+        if (line < 0 || line >= nLines || col < 0 || col >= nCols) {
+            return null;
+        }
+        return new Position(line, col);
+    }
+
+    /**
+     * Marks a cell as the first cell of the current selection, or clears that mark.
+     *
+     * @param position the position of the cell
+     * @param selected whether the cell is selected
+     */
+    public void setSelected(Position position, boolean selected) {
+        int index = position.line() * nCols + position.col();
+        if (states[index] == PLAIN || states[index] == SELECTED) {
+            setState(position, selected ? SELECTED : PLAIN);
+        }
+    }
+
+    /**
+     * Marks a cell as part of a found word.
+     *
+     * @param position the position of the cell
+     * @param bonus    whether the cell has a bonus
+     */
+    public void setFound(Position position, boolean bonus) {
+        setState(position, bonus ? FOUND_BONUS : FOUND);
+    }
+
+    /**
+     * Clears the marks of a cell and draws its letter again.
+     *
+     * @param position the position of the cell
+     */
+    public void reset(Position position) {
+        setState(position, PLAIN);
+    }
+
+    /**
+     * Changes the state of a cell and adds it to the rectangle to draw again.
+     *
+     * @param position the position of the cell
+     * @param state    the new state
+     */
+    private void setState(Position position, byte state) {
+        states[position.line() * nCols + position.col()] = state;
+        dirtyMinLine = Math.min(dirtyMinLine, position.line());
+        dirtyMaxLine = Math.max(dirtyMaxLine, position.line());
+        dirtyMinCol = Math.min(dirtyMinCol, position.col());
+        dirtyMaxCol = Math.max(dirtyMaxCol, position.col());
+        scheduleRepaint();
+    }
+
+    /**
+     * Asks for the whole visible part of the board to be drawn again, after scrolling or resizing.
+     */
+    private void scheduleRepaintAll() {
+        repaintAll = true;
+        scheduleRepaint();
+    }
+
+    /**
+     * Schedules a repaint, so all the changes made while handling an event are drawn at once.
+     */
+    private void scheduleRepaint() {
+        if (!repaintScheduled) {
+            repaintScheduled = true;
+            Platform.runLater(this::repaint);
+        }
+    }
+
+    /**
+     * Draws again the cells that changed, or the whole visible part of the board.
+     */
+    private void repaint() {
+        repaintScheduled = false;
+        double scrollX = horizontalBar.getValue();
+        double scrollY = verticalBar.getValue();
+        int firstLine = (int) (scrollY / CELL_SIZE);
+        int lastLine = Math.min(nLines - 1, (int) ((scrollY + canvas.getHeight()) / CELL_SIZE));
+        int firstCol = (int) (scrollX / CELL_SIZE);
+        int lastCol = Math.min(nCols - 1, (int) ((scrollX + canvas.getWidth()) / CELL_SIZE));
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        if (repaintAll) {
+            graphics.setFill(Color.LIGHTGRAY);
+            graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        } else {
+            firstLine = Math.max(firstLine, dirtyMinLine);
+            lastLine = Math.min(lastLine, dirtyMaxLine);
+            firstCol = Math.max(firstCol, dirtyMinCol);
+            lastCol = Math.min(lastCol, dirtyMaxCol);
+        }
+        graphics.setFont(Font.font(CELL_SIZE / 2));
+        graphics.setTextAlign(TextAlignment.CENTER);
+        graphics.setTextBaseline(VPos.CENTER);
+        graphics.setStroke(Color.GRAY);
+        for (int line = firstLine; line <= lastLine; line++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                double x = col * CELL_SIZE - scrollX;
+                double y = line * CELL_SIZE - scrollY;
+                graphics.setFill(COLORS[states[line * nCols + col]]);
+                graphics.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+                graphics.strokeRect(x + 0.5, y + 0.5, CELL_SIZE - 1, CELL_SIZE - 1);
+                graphics.setFill(Color.BLACK);
+                graphics.fillText(letterText(model.letterAt(line, col)), x + CELL_SIZE / 2, y + CELL_SIZE / 2);
+            }
+        }
+        repaintAll = false;
+        dirtyMinLine = Integer.MAX_VALUE;
+        dirtyMaxLine = -1;
+        dirtyMinCol = Integer.MAX_VALUE;
+        dirtyMaxCol = -1;
+    }
+
+    /**
+     * Creates the table of the texts of the Latin-1 letters.
+     *
+     * @return the text of each letter, by its code
+     */
+    private static String[] letterTexts() {
+        String[] texts = new String[256];
+        for (char letter = 0; letter < texts.length; letter++) {
+            texts[letter] = String.valueOf(letter);
+        }
+        return texts;
+    }
+
+    /**
+     * Gets the text of a letter, from the table when it is a Latin-1 letter.
+     *
+     * @param letter the letter
+     * @return the text of the letter
+     */
+    private static String letterText(char letter) {
+        return (letter < LETTER_TEXTS.length) ? LETTER_TEXTS[letter] : String.valueOf(letter);
+    }
+
+    /**
+     * Places the canvas and the scroll bars and updates the range of the scroll bars.
+     */
+    @Override
+    protected void layoutChildren() {
+        double barWidth = verticalBar.prefWidth(-1);
+        double barHeight = horizontalBar.prefHeight(-1);
+        double width = Math.max(0, getWidth() - barWidth);
+        double height = Math.max(0, getHeight() - barHeight);
+        if (width != canvas.getWidth() || height != canvas.getHeight()) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            scheduleRepaintAll();
+        }
+        canvas.relocate(0, 0);
+        horizontalBar.resizeRelocate(0, height, width, barHeight);
+        verticalBar.resizeRelocate(width, 0, barWidth, height);
+        updateBar(horizontalBar, nCols * CELL_SIZE, width);
+        updateBar(verticalBar, nLines * CELL_SIZE, height);
+    }
+
+    /**
+     * Updates the range of a scroll bar to the part of the board that does not fit.
+     *
+     * @param bar      the scroll bar
+     * @param total    the size of the whole board, in pixels
+     * @param viewport the size of the visible part, in pixels
+     */
+    private static void updateBar(ScrollBar bar, double total, double viewport) {
+        double max = Math.max(0, total - viewport);
+        bar.setMax(max);
+        bar.setVisibleAmount(viewport);
+        bar.setUnitIncrement(CELL_SIZE);
+        bar.setBlockIncrement(viewport);
+        bar.setValue(clamp(bar.getValue(), max));
+    }
+
+    /**
+     * Keeps a scroll value between 0 and the maximum.
+     *
+     * @param value the value
+     * @param max   the maximum
+     * @return the value inside the range
+     */
+    private static double clamp(double value, double max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
@@ -0,0 +1,33 @@
+package pt.ipbeja.app.ui;
+
+import javafx.scene.control.Button;
+import pt.ipbeja.app.model.Position;
+
+/**
+ * CellButton class
+ * Button of a cell of the board, which knows the position of its cell.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class CellButton extends Button {
+    private final Position position; //Position of the cell on the board
+
+    /**
+     * Constructor for CellButton.
+     * @param text the letter of the cell
+     * @param position the position of the cell
+     */
+    public CellButton(String text, Position position) {
+        super(text);
+        this.position = position;
+    }
+
+    /**
+     * Gets the position of the cell of the button.
+     * @return the position
+     */
+    public Position getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,94 @@
+package pt.ipbeja.app.ui;
+
+import javafx.collections.ObservableListBase;
+import pt.ipbeja.app.model.Position;
+
+/**
+ * MoveHistory class
+ * Keeps the last moves of the game in a ring buffer of ints, five per move, and shows them as an observable list.
+ * When the buffer is full each new move replaces the oldest one, so the history never grows past its capacity.
+ * A Move is only created when a row is read, and the text of a move is only made by the list cells that show it.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class MoveHistory extends ObservableListBase<MoveHistory.Move> {
+    public static final int DEFAULT_CAPACITY = 1000; //Number of moves kept when no capacity is given
+    private static final int FIELDS = 5; //Number of ints of each move
+
+    /**
+     * Move of the game: a word found between two cells, in the order they were clicked.
+     * @param wordId the id of the word
+     * @param first the first cell clicked
+     * @param second the second cell clicked
+     */
+    public record Move(int wordId, Position first, Position second) {}
+
+    private final int[] moves; //Id of the word and lines and columns of the two cells of each move
+    private final int capacity; //Maximum number of moves kept
+    private int oldest = 0; //Slot of the oldest move
+    private int size = 0; //Number of moves kept
+
+    /**
+     * Constructor for MoveHistory.
+     * @param capacity the maximum number of moves kept, at least 1
+     * @throws IllegalArgumentException if the capacity is smaller than 1
+     */
+    public MoveHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        this.capacity = capacity;
+        this.moves = new int[capacity * FIELDS];
+    }
+
+    /**
+     * Adds a move, removing the oldest one if the history is full.
+     * @param wordId the id of the word found
+     * @param first the first cell clicked
+     * @param second the second cell clicked
+     */
+    public void addMove(int wordId, Position first, Position second) {
+        beginChange();
+        int slot;
+        if (size == capacity) {
+            nextRemove(0, get(0));
+            slot = oldest;
+            oldest = (oldest + 1) % capacity;
+        } else {
+            slot = (oldest + size) % capacity;
+            size++;
+        }
+        int base = slot * FIELDS;
+        moves[base] = wordId;
+        moves[base + 1] = first.line();
+        moves[base + 2] = first.col();
+        moves[base + 3] = second.line();
+        moves[base + 4] = second.col();
+        nextAdd(size - 1, size);
+        endChange();
+    }
+
+    /**
+     * Gets a move, from the oldest to the newest.
+     * @param index the index of the move
+     * @return the move
+     */
+    @Override
+    public Move get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int base = ((oldest + index) % capacity) * FIELDS;
+        return new Move(moves[base], new Position(moves[base + 1], moves[base + 2]), new Position(moves[base + 3], moves[base + 4]));
+    }
+
+    /**
+     * Gets the number of moves kept.
+     * @return the number of moves
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -14,9 +14,15 @@ import javafx.scene.paint.Color;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import pt.ipbeja.app.model.PuzzleFile;
 import pt.ipbeja.app.model.WSModel;
+import pt.ipbeja.app.model.WordPlacementException;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * StartWordSearch class.
@@ -27,6 +33,8 @@ import java.io.File;
  */
 public class StartWordSearch extends Application {
 
+    private static final String PUZZLE_EXTENSION = ".wspz"; // Extension of the files of pre-generated puzzles
+
     private Stage primaryStage;
     private Scene initialScene;
 
@@ -129,10 +137,20 @@ public class StartWordSearch extends Application {
         File selectedFile = selectFile();
 
         if (selectedFile != null) {
-            WSModel wsModel = new WSModel(selectedFile.getAbsolutePath(), withDiagonals);
+            WSModel wsModel;
+            try {
+                if (selectedFile.getName().endsWith(PUZZLE_EXTENSION)) {
+                    wsModel = loadPuzzle(selectedFile, withDiagonals);
+                } else {
+                    wsModel = new WSModel(selectedFile.getAbsolutePath(), withDiagonals);
+                }
+            } catch (WordPlacementException | IOException e) {
+                showErrorAlert(e.getMessage());
+                return;
+            }
             WSBoard wsBoard = new WSBoard(wsModel);
 
-            wsModel.registerView();
+            wsModel.registerView(wsBoard);
             wsBoard.requestFocus();
 
             HBox buttonBox = createGameButtonBox(wsModel);
@@ -146,6 +164,29 @@ public class StartWordSearch extends Application {
         }
     }
 
+    /**
+     * Loads a random puzzle from a file of pre-generated puzzles.
+     *
+     * @param file          the puzzle file
+     * @param withDiagonals true if the puzzle should include diagonal words, false otherwise
+     * @return the model of the puzzle
+     * @throws IOException if the file has no puzzle of the chosen kind or cannot be read
+     */
+    private WSModel loadPuzzle(File file, boolean withDiagonals) throws IOException {
+        try (PuzzleFile puzzles = new PuzzleFile(file.toPath())) {
+            List<Integer> matching = new ArrayList<>();
+            for (int i = 0; i < puzzles.size(); i++) {
+                if (puzzles.hasDiagonals(i) == withDiagonals) {
+                    matching.add(i);
+                }
+            }
+            if (matching.isEmpty()) {
+                throw new IOException("O ficheiro não tem puzzles " + (withDiagonals ? "com" : "sem") + " diagonais");
+            }
+            return puzzles.puzzle(matching.get(ThreadLocalRandom.current().nextInt(matching.size())));
+        }
+    }
+
     /**
      * Opens a file chooser to select a file.
      *
@@ -154,7 +195,9 @@ public class StartWordSearch extends Application {
     private File selectFile() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Selecione um ficheiro");
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Ficheiros de texto", "*.txt"));
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Ficheiros de texto", "*.txt"),
+                new FileChooser.ExtensionFilter("Puzzles gerados", "*" + PUZZLE_EXTENSION));
         return fileChooser.showOpenDialog(primaryStage);
     }
 
@@ -238,6 +281,19 @@ public class StartWordSearch extends Application {
         alert.showAndWait();
     }
 
+    /**
+     * Shows an error alert with a message.
+     *
+     * @param message the message to display in the alert
+     */
+    private void showErrorAlert(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Erro");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
     /**
      * Sets the stage to full screen.
      *
@@ -1,19 +1,26 @@
 package pt.ipbeja.app.ui;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.scene.control.Label;
-import javafx.scene.control.TextArea;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Text;
 import pt.ipbeja.app.model.*;
 
 /**
  * WSBoard class
  * Represents the user interface for the game.
+ * Boards with up to CANVAS_MIN_CELLS cells use one button per cell; bigger boards are drawn on a BoardCanvas.
  *
  * @version 31/05/2024 (Final)
  * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
@@ -21,19 +28,36 @@ import pt.ipbeja.app.model.*;
 public class WSBoard extends BorderPane implements WSView {
     private final WSModel wsModel; //Game model
     private static final int SQUARE_SIZE = 80; //Size of the buttons
-    private Button firstButtonClicked; //First button that is clicked
-    private final TextArea movesTextArea; //Text area for all the game moves
+    public static final int CANVAS_MIN_CELLS = 2_500; //Boards with more cells are drawn on a canvas
+    private BoardCanvas boardCanvas; //Canvas where the board is drawn, or null if buttons are used
+    private CellButton[][] buttons; //Button of each cell, by line and column, or null if the canvas is used
+    private Position firstPositionClicked; //Position of the first cell that is clicked
+    private final MoveHistory moves; //Last moves of the game
+    private final ListView<MoveHistory.Move> movesListView; //List of the moves, which only formats the visible rows
     private final Label bonusScoreLabel = new Label("Pontuação: 0");  // Initialize with default text
-    private final Label wordsListLabel;  // Label to display the list of words
+    private final ObservableList<Integer> wordIds = FXCollections.observableArrayList(); // Ids of the words to find, the index of each one is its id
+    private final ListView<Integer> wordsListView = new ListView<>(wordIds); // List of the words, which only creates cells for the visible rows
 
     /**
      * Constructor for WSBoard.
      * @param wsModel the model of the word search game
      */
     public WSBoard(WSModel wsModel) {
+        this(wsModel, MoveHistory.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for WSBoard with the number of moves kept in the history.
+     * @param wsModel the model of the word search game
+     * @param movesKept the number of moves kept in the history
+     */
+    public WSBoard(WSModel wsModel, int movesKept) {
         this.wsModel = wsModel;
-        this.movesTextArea = new TextArea();
-        this.wordsListLabel = new Label(wsModel.generateWordsList());  // Initialize with the words list
+        this.moves = new MoveHistory(movesKept);
+        this.movesListView = new ListView<>(moves);
+        for (int id = 0; id < wsModel.wordCount(); id++) {
+            wordIds.add(id);
+        }
         this.buildGUI();
     }
 
@@ -43,31 +67,39 @@ public class WSBoard extends BorderPane implements WSView {
     private void buildGUI() {
         assert (this.wsModel != null);
 
-        GridPane gridPane = new GridPane();
-
-        for (int line = 0; line < this.wsModel.nLines(); line++) {
-            for (int col = 0; col < this.wsModel.nCols(); col++) {
-                Button button = createButton(line, col);
-                gridPane.add(button, col, line);
+        if ((long) this.wsModel.nLines() * this.wsModel.nCols() > CANVAS_MIN_CELLS) {
+            boardCanvas = new BoardCanvas(this.wsModel);
+            boardCanvas.setOnCellClicked(this::handleCellClick);
+            this.setCenter(boardCanvas);
+        } else {
+            GridPane gridPane = new GridPane();
+            buttons = new CellButton[this.wsModel.nLines()][this.wsModel.nCols()];
+            for (int line = 0; line < this.wsModel.nLines(); line++) {
+                for (int col = 0; col < this.wsModel.nCols(); col++) {
+                    buttons[line][col] = createButton(line, col);
+                    gridPane.add(buttons[line][col], col, line);
+                }
             }
+            this.setCenter(gridPane);
         }
 
-        movesTextArea.setEditable(false);
-        movesTextArea.setPrefWidth(300);
+        movesListView.setCellFactory(listView -> new MoveCell());
+        movesListView.setPrefWidth(300);
 
         VBox rightPane = new VBox(); // Add a VBox for the right pane
-        rightPane.getChildren().addAll(new Label("Jogadas Efetuadas:"), movesTextArea, bonusScoreLabel);
+        rightPane.getChildren().addAll(new Label("Jogadas Efetuadas:"), movesListView, bonusScoreLabel);
         rightPane.setSpacing(10);
         rightPane.setPadding(new Insets(10));
         rightPane.setAlignment(Pos.TOP_LEFT);
 
         VBox leftPane = new VBox();  // Add a VBox for the left pane
-        leftPane.getChildren().addAll(wordsListLabel);
+        wordsListView.setCellFactory(listView -> new WordCell());
+        wordsListView.setPrefWidth(200);
+        leftPane.getChildren().addAll(new Label("Palavras a encontrar:"), wordsListView);
         leftPane.setSpacing(10);
         leftPane.setPadding(new Insets(10));
         leftPane.setAlignment(Pos.TOP_LEFT);
 
-        this.setCenter(gridPane);
         this.setRight(rightPane); // Add the right pane to the border pane
         this.setLeft(leftPane);  // Add the left pane to the border pane
         this.requestFocus();
@@ -79,145 +111,104 @@ public class WSBoard extends BorderPane implements WSView {
      * @param col the column of the cell
      * @return the created button
      */
-    private Button createButton(int line, int col) {
-        String textForButton = this.wsModel.textInPosition(new Position(line, col));
-        Button button = new Button(textForButton);
+    private CellButton createButton(int line, int col) {
+        Position position = new Position(line, col);
+        CellButton button = new CellButton(this.wsModel.textInPosition(position), position);
         button.setMinWidth(SQUARE_SIZE);
         button.setMinHeight(SQUARE_SIZE);
-        button.setOnAction(event -> handleButtonClick(button));
+        button.setOnAction(event -> handleCellClick(button.getPosition()));
 
         return button;
     }
 
     /**
-     * Handles button click events.
-     * @param button the button that was clicked
+     * Handles clicks on the cells of the board, from the buttons or from the canvas.
+     * @param position the position of the cell that was clicked
      */
-    private void handleButtonClick(Button button) {
-        if (firstButtonClicked == null) {
-            firstButtonClicked = button;
-            firstButtonClicked.setStyle("-fx-background-color: yellow");
-        } else if (button == firstButtonClicked) {
-            firstButtonClicked.setStyle("");
-            firstButtonClicked = null;
+    private void handleCellClick(Position position) {
+        if (firstPositionClicked == null) {
+            firstPositionClicked = position;
+            setSelected(position, true);
+        } else if (position.equals(firstPositionClicked)) {
+            setSelected(position, false);
+            firstPositionClicked = null;
         } else {
-            Position firstPosition = getPositionOfButton(firstButtonClicked);
-            Position secondPosition = getPositionOfButton(button);
-
-            if (wsModel.isFirstAndLastOfWord(firstPosition, secondPosition)) {
-                highlightWord(firstButtonClicked, button);
+            if (wsModel.isFirstAndLastOfWord(firstPositionClicked, position)) {
+                highlightWord(firstPositionClicked, position);
             } else {
-                firstButtonClicked.setStyle("");
+                setSelected(firstPositionClicked, false);
             }
 
-            firstButtonClicked = null;
+            firstPositionClicked = null;
         }
     }
 
     /**
-     * Gets the position of a button in the grid.
-     * @param button the button
-     * @return the position of the button
+     * Marks a cell as the first cell of the selection, or clears that mark.
+     * @param position the position of the cell
+     * @param selected whether the cell is selected
      */
-    private Position getPositionOfButton(Button button) {
-        int row = GridPane.getRowIndex(button);
-        int col = GridPane.getColumnIndex(button);
-        return new Position(row, col);
+    private void setSelected(Position position, boolean selected) {
+        if (boardCanvas != null) {
+            boardCanvas.setSelected(position, selected);
+        } else {
+            buttons[position.line()][position.col()].setStyle(selected ? "-fx-background-color: yellow" : "");
+        }
     }
 
     /**
-     * Highlights the word found between two buttons.
-     * @param firstButton the first button
-     * @param secondButton the second button
+     * Highlights the word found between two cells.
+     * The cells are visited from the end with the smaller line (or column, on the same line),
+     * so the word is read in the same order as the model reads it.
+     * @param firstPosition the position of the first cell
+     * @param secondPosition the position of the second cell
      */
-    private void highlightWord(Button firstButton, Button secondButton) {
-        Position firstPosition = getPositionOfButton(firstButton);
-        Position secondPosition = getPositionOfButton(secondButton);
+    private void highlightWord(Position firstPosition, Position secondPosition) {
+        boolean firstIsStart = firstPosition.line() < secondPosition.line()
+                || (firstPosition.line() == secondPosition.line() && firstPosition.col() <= secondPosition.col());
+        Position start = firstIsStart ? firstPosition : secondPosition;
+        Position end = firstIsStart ? secondPosition : firstPosition;
 
-        int minRow = Math.min(firstPosition.line(), secondPosition.line());
-        int maxRow = Math.max(firstPosition.line(), secondPosition.line());
-        int minCol = Math.min(firstPosition.col(), secondPosition.col());
-        int maxCol = Math.max(firstPosition.col(), secondPosition.col());
+        highlightSegment(start, end);
 
-        StringBuilder wordBuilder = new StringBuilder();
-        StringBuilder positionsBuilder = new StringBuilder();
+        int id = wsModel.wordIdAt(firstPosition, secondPosition);
+        addMove(id, firstPosition, secondPosition);
 
-        boolean isDiagonal = (maxRow - minRow) == (maxCol - minCol) || (maxRow - minRow) == (minCol - maxCol);
-        int diagonalDirection = (firstPosition.col() < secondPosition.col()) ? 0 : 1;
-
-        if (isDiagonal) {
-            highlightDiagonalWord(firstPosition, secondPosition, wordBuilder, positionsBuilder, diagonalDirection);
-        } else if (firstPosition.line() == secondPosition.line()) {
-            highlightHorizontalWord(firstPosition, minCol, maxCol, wordBuilder, positionsBuilder);
-        } else {
-            highlightVerticalWord(firstPosition, minRow, maxRow, wordBuilder, positionsBuilder);
-        }
-
-        String foundWord = wordBuilder.toString();
-        appendToMovesTextArea(positionsBuilder, foundWord, firstPosition, secondPosition);
-
-        updateWordsListLabel(foundWord);
+        updateWordsList(id);
 
         updateScoreLabel();
     }
 
     /**
-     * Highlights a diagonal word.
-     * @param firstPosition the starting position
-     * @param secondPosition the ending position
-     * @param wordBuilder a StringBuilder for the word
-     * @param positionsBuilder a StringBuilder for the positions
-     * @param diagonalDirection the direction of the diagonal (0 for ↘, 1 for ↙)
-     */
-    private void highlightDiagonalWord(Position firstPosition, Position secondPosition, StringBuilder wordBuilder, StringBuilder positionsBuilder, int diagonalDirection) {
-        int rowIncrement = firstPosition.line() < secondPosition.line() ? 1 : -1;
-        int colIncrement = (diagonalDirection == 0) ? 1 : -1;
-        int row = firstPosition.line();
-        int col = firstPosition.col();
-        while (row != secondPosition.line() + rowIncrement && col != secondPosition.col() + colIncrement) {
-            Button button = getButton(row, col);
-            Cell cell = wsModel.getCell(new Position(row, col));
-            highlightButton(button, cell);
-            wordBuilder.append(button.getText());
-            appendPositionInfo(positionsBuilder, row, col, button.getText());
-            row += rowIncrement;
-            col += colIncrement;
-        }
-    }
-
-    /**
-     * Highlights a horizontal word.
-     * @param firstPosition the starting position
-     * @param minCol the minimum column
-     * @param maxCol the maximum column
-     * @param wordBuilder a StringBuilder for the word
-     * @param positionsBuilder a StringBuilder for the positions
+     * Highlights the cells of a horizontal, vertical or diagonal segment, one step at a time from start to end.
+     * @param start the first cell of the segment
+     * @param end the last cell of the segment
      */
-    private void highlightHorizontalWord(Position firstPosition, int minCol, int maxCol, StringBuilder wordBuilder, StringBuilder positionsBuilder) {
-        for (int col = minCol; col <= maxCol; col++) {
-            Button button = getButton(firstPosition.line(), col);
-            Cell cell = wsModel.getCell(new Position(firstPosition.line(), col));
-            highlightButton(button, cell);
-            wordBuilder.append(button.getText());
-            appendPositionInfo(positionsBuilder, firstPosition.line(), col, button.getText());
+    private void highlightSegment(Position start, Position end) {
+        int lineStep = Integer.signum(end.line() - start.line());
+        int colStep = Integer.signum(end.col() - start.col());
+        int length = Math.max(Math.abs(end.line() - start.line()), Math.abs(end.col() - start.col())) + 1;
+        int row = start.line();
+        int col = start.col();
+        for (int i = 0; i < length; i++) {
+            highlightCell(row, col);
+            row += lineStep;
+            col += colStep;
         }
     }
 
     /**
-     * Highlights a vertical word.
-     * @param firstPosition the starting position
-     * @param minRow the minimum row
-     * @param maxRow the maximum row
-     * @param wordBuilder a StringBuilder for the word
-     * @param positionsBuilder a StringBuilder for the positions
+     * Highlights a cell of a found word.
+     * @param row the row of the cell
+     * @param col the column of the cell
      */
-    private void highlightVerticalWord(Position firstPosition, int minRow, int maxRow, StringBuilder wordBuilder, StringBuilder positionsBuilder) {
-        for (int row = minRow; row <= maxRow; row++) {
-            Button button = getButton(row, firstPosition.col());
-            Cell cell = wsModel.getCell(new Position(row, firstPosition.col()));
-            highlightButton(button, cell);
-            wordBuilder.append(button.getText());
-            appendPositionInfo(positionsBuilder, row, firstPosition.col(), button.getText());
+    private void highlightCell(int row, int col) {
+        if (buttons != null) {
+            CellButton button = buttons[row][col];
+            highlightButton(button, wsModel.getCell(button.getPosition()));
+        } else {
+            Position position = new Position(row, col);
+            boardCanvas.setFound(position, wsModel.getCell(position).getBonus() > 0);
         }
     }
 
@@ -235,39 +226,24 @@ public class WSBoard extends BorderPane implements WSView {
     }
 
     /**
-     * Appends position information to the StringBuilder.
-     * @param positionsBuilder the StringBuilder for the positions
-     * @param row the row
-     * @param col the column
-     * @param buttonText the text of the button
-     */
-    private void appendPositionInfo(StringBuilder positionsBuilder, int row, int col, String buttonText) {
-        positionsBuilder.append(String.format("(%d, %s) -> %s\n", row + 1, (char) ('A' + col), buttonText));
-    }
-
-    /**
-     * Appends the found word and positions to the moves text area.
-     * @param positionsBuilder the StringBuilder for the positions
-     * @param foundWord the found word
-     * @param firstPosition the starting position
-     * @param secondPosition the ending position
+     * Adds a move to the history and scrolls the moves list to it.
+     * @param id the id of the found word
+     * @param firstPosition the first cell clicked
+     * @param secondPosition the second cell clicked
      */
-    private void appendToMovesTextArea(StringBuilder positionsBuilder, String foundWord, Position firstPosition, Position secondPosition) {
-        positionsBuilder.append(String.format("\"%s\" (%d, %s) to (%d, %s)\n",
-                foundWord, firstPosition.line() + 1, (char) ('A' + firstPosition.col()),
-                secondPosition.line() + 1, (char) ('A' + secondPosition.col())));
-        movesTextArea.appendText(positionsBuilder.toString());
-        movesTextArea.setScrollTop(Double.MAX_VALUE);
+    private void addMove(int id, Position firstPosition, Position secondPosition) {
+        moves.addMove(id, firstPosition, secondPosition);
+        movesListView.scrollTo(moves.size() - 1);
     }
 
     /**
-     * Updates the words list label.
-     * @param foundWord the found word
+     * Updates the row of a found word in the words list; the other rows are not drawn again.
+     * @param id the id of the found word
      */
-    private void updateWordsListLabel(String foundWord) {
-        String currentLabelText = wordsListLabel.getText();
-        String updatedLabelText = currentLabelText.replace(foundWord, "").trim();
-        wordsListLabel.setText(updatedLabelText);
+    private void updateWordsList(int id) {
+        if (id != WordDictionary.NOT_FOUND) {
+            wordIds.set(id, id);
+        }
     }
 
     /**
@@ -284,29 +260,130 @@ public class WSBoard extends BorderPane implements WSView {
     @Override
     public void update(MessageToUI messageToUI) {
         for (Position p : messageToUI.positions()) {
-            String s = this.wsModel.textInPosition(p);
-            Button button = getButton(p.line(), p.col());
-            button.setText(s);
-            button.setStyle("");
+            if (boardCanvas != null) {
+                boardCanvas.reset(p);
+            } else {
+                String s = this.wsModel.textInPosition(p);
+                Button button = buttons[p.line()][p.col()];
+                button.setText(s);
+                button.setStyle("");
+            }
         }
         if (this.wsModel.allWordsWereFound()) {
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Fim de Jogo");
-            alert.setHeaderText(null);
-            alert.setContentText(messageToUI.message());
-            alert.showAndWait();
-            System.exit(0);
+            // The model reports the end of the game while the last selection is still being handled,
+            // so the alert waits until the last word is highlighted and the labels are updated
+            Platform.runLater(() -> {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Fim de Jogo");
+                alert.setHeaderText(null);
+                alert.setContentText(messageToUI.message());
+                alert.showAndWait();
+                System.exit(0);
+            });
         }
     }
 
     /**
-     * Gets the button at a specific position in the grid.
+     * Gets the button at a specific position in the grid (only for boards drawn with buttons).
      * @param line the row
      * @param col the column
      * @return the button at the specified position
      */
     public Button getButton(int line, int col) {
-        GridPane gridPane = (GridPane) this.getCenter();
-        return (Button) gridPane.getChildren().get(line * wsModel.nCols() + col);
+        return buttons[line][col];
+    }
+
+    /**
+     * Row of the words list, which shows a word crossed out after it is found.
+     */
+    private class WordCell extends ListCell<Integer> {
+        private final Text text = new Text(); //Text of the word
+        private boolean showsFound; //Whether the word is shown as found
+
+        /**
+         * Checks if the row must be drawn again: the same id is set again when its word is found,
+         * so the row also changes when the found state of its word is not the one shown.
+         * @param oldId the id shown
+         * @param newId the new id
+         * @return true if the row must be drawn again
+         */
+        @Override
+        protected boolean isItemChanged(Integer oldId, Integer newId) {
+            return super.isItemChanged(oldId, newId) || (newId != null && showsFound != wsModel.isWordFound(newId));
+        }
+
+        /**
+         * Shows the word of a row.
+         * @param id the id of the word, or null if the row is empty
+         * @param empty whether the row is empty
+         */
+        @Override
+        protected void updateItem(Integer id, boolean empty) {
+            super.updateItem(id, empty);
+            if (empty || id == null) {
+                showsFound = false;
+                setGraphic(null);
+            } else {
+                boolean found = wsModel.isWordFound(id);
+                showsFound = found;
+                text.setText(wsModel.word(id));
+                text.setStrikethrough(found);
+                text.setFill(found ? Color.GRAY : Color.BLACK);
+                setGraphic(text);
+            }
+        }
+    }
+
+    /**
+     * Row of the moves list, which writes the letters of a move and their positions only when the row is shown.
+     */
+    private class MoveCell extends ListCell<MoveHistory.Move> {
+
+        /**
+         * Shows the move of a row.
+         * @param move the move, or null if the row is empty
+         * @param empty whether the row is empty
+         */
+        @Override
+        protected void updateItem(MoveHistory.Move move, boolean empty) {
+            super.updateItem(move, empty);
+            setText((empty || move == null) ? null : formatMove(move));
+        }
+
+        /**
+         * Writes a move as text: each letter with its position, then the word and its two ends.
+         * @param move the move
+         * @return the text of the move
+         */
+        private String formatMove(MoveHistory.Move move) {
+            Position first = move.first();
+            Position second = move.second();
+            boolean firstIsStart = first.line() < second.line() || (first.line() == second.line() && first.col() <= second.col());
+            Position start = firstIsStart ? first : second;
+            Position end = firstIsStart ? second : first;
+            int lineStep = Integer.signum(end.line() - start.line());
+            int colStep = Integer.signum(end.col() - start.col());
+            String word = wsModel.word(move.wordId());
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < word.length(); i++) {
+                int row = start.line() + i * lineStep;
+                int col = start.col() + i * colStep;
+                appendPosition(text, row, col).append(" -> ").append(word.charAt(i)).append('\n');
+            }
+            text.append('"').append(word).append("\" ");
+            appendPosition(text, first.line(), first.col()).append(" to ");
+            return appendPosition(text, second.line(), second.col()).toString();
+        }
+
+        /**
+         * Appends a position as the line number and the column letter, as in "(1, A)".
+         * @param text the text
+         * @param row the row
+         * @param col the column
+         * @return the text
+         */
+        private StringBuilder appendPosition(StringBuilder text, int row, int col) {
+            return text.append('(').append(row + 1).append(", ").append(Position.columnLabel(col)).append(')');
+        }
     }
 }
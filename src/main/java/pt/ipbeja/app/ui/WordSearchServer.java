@@ -0,0 +1,391 @@
+package pt.ipbeja.app.ui;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import pt.ipbeja.app.model.GameSession;
+import pt.ipbeja.app.model.Position;
+import pt.ipbeja.app.model.SessionManager;
+import pt.ipbeja.app.model.WSModel;
+import pt.ipbeja.app.model.WordListLoader;
+import pt.ipbeja.app.model.WordPlacementException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WordSearchServer class.
+ * Local HTTP server that hosts many games at once, each one a session with its own headless model.
+ * Requests run on virtual threads only when the server runs on Java 21 or later; on Java 17, the version the project
+ * is compiled for, they run on a fixed pool of 4 threads per processor.
+ * The number of sessions and the size of their boards are capped, and idle sessions are evicted.
+ *
+ * Requests (positions are "line,column", counted from 0; the answers are plain text):
+ * POST /sessions?size=LINESxCOLS&diagonals=true creates a game and answers its id, board and words;
+ * GET /sessions/ID answers the board and the score;
+ * POST /sessions/ID/select?from=L,C&to=L,C checks a selection and answers true or false and the score;
+ * DELETE /sessions/ID ends the game.
+ *
+ * Usage: WordSearchServer wordsFile [--port P] [--words N] [--max-sessions N] [--max-size N] [--idle-seconds S]
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+public class WordSearchServer {
+    public static final String SESSIONS_PATH = "/sessions"; // Path of the requests
+    public static final int DEFAULT_PORT = 8080; // Port used when none is given
+    public static final int DEFAULT_WORDS = 8; // Number of words of each game when none is given
+    public static final int DEFAULT_MAX_SESSIONS = 10_000; // Maximum number of sessions when none is given
+    public static final int DEFAULT_MAX_SIZE = 50; // Maximum number of lines or columns of a board when none is given
+    public static final long DEFAULT_IDLE_SECONDS = 600; // Time without requests before a session is evicted, when none is given
+
+    private final List<String> words; // Words the words of each game are taken from, without repetitions and from the shortest
+    private final int wordsPerGame; // Number of words of each game
+    private final int maxSize; // Maximum number of lines or columns of a board
+    private final SessionManager sessions; // Sessions of the server
+    private final HttpServer server; // HTTP server
+    private final ExecutorService requests; // Threads that run the requests
+    private final ScheduledExecutorService evictor; // Thread that evicts the idle sessions
+
+    /**
+     * Constructor for WordSearchServer.
+     * The server only starts answering after start is called.
+     *
+     * @param words        the words the words of each game are taken from
+     * @param wordsPerGame the number of words of each game
+     * @param port         the port, or 0 for any free port
+     * @param maxSessions  the maximum number of sessions at the same time
+     * @param maxSize      the maximum number of lines or columns of a board
+     * @param idleMillis   the time without requests after which a session is evicted
+     * @throws IOException              if the port cannot be used
+     * @throws IllegalArgumentException if the number of words of each game is smaller than 1
+     */
+    public WordSearchServer(List<String> words, int wordsPerGame, int port, int maxSessions, int maxSize, long idleMillis) throws IOException {
+        if (wordsPerGame < 1) {
+            throw new IllegalArgumentException("Número de palavras por jogo inválido: " + wordsPerGame);
+        }
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(words));
+        distinct.sort(Comparator.comparingInt(String::length)); // The words that fit on a board come first
+        this.words = List.copyOf(distinct);
+        this.wordsPerGame = wordsPerGame;
+        this.maxSize = Math.min(maxSize, WSModel.MAX_BOARD_SIZE);
+        this.sessions = new SessionManager(maxSessions, idleMillis);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.requests = newRequestExecutor();
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(SESSIONS_PATH, this::handle);
+        server.setExecutor(requests);
+        long period = Math.max(1000, idleMillis / 4);
+        evictor.scheduleAtFixedRate(() -> sessions.evictIdle(System.currentTimeMillis()), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates the executor of the requests: one virtual thread per request on Java 21 or later
+     * (found by reflection, because the project is compiled for Java 17), or a fixed pool of
+     * 4 threads per processor on Java 17.
+     *
+     * @return the executor
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) { // Java 17, or a preview version without --enable-preview
+            return Executors.newFixedThreadPool(4 * Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    /**
+     * Starts answering requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server and its threads.
+     */
+    public void stop() {
+        server.stop(0);
+        evictor.shutdownNow();
+        requests.shutdownNow();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return the port
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the sessions of the server.
+     *
+     * @return the sessions
+     */
+    public SessionManager sessions() {
+        return sessions;
+    }
+
+    /**
+     * Answers a request.
+     *
+     * @param exchange the request and its answer
+     * @throws IOException if the answer cannot be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.readAllBytes(); // The requests have no body, but it must be read so the connection can be reused
+            }
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().substring(SESSIONS_PATH.length()).split("/");
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            long now = System.currentTimeMillis();
+            try {
+                if (path.length <= 1 && method.equals("POST")) {
+                    GameSession session = sessions.create(() -> createModel(query), now);
+                    send(exchange, 201, session.id() + "\n" + session.stateText() + session.wordsText());
+                    return;
+                }
+                if (path.length < 2) {
+                    send(exchange, 405, "Método não permitido\n");
+                    return;
+                }
+                String id = path[1];
+                String action = (path.length > 2) ? path[2] : "";
+                if (method.equals("DELETE") && action.isEmpty()) {
+                    GameSession session = sessions.end(id);
+                    sendSession(exchange, session, session == null ? null : session.stateText());
+                    return;
+                }
+                GameSession session = sessions.get(id, now);
+                if (method.equals("GET") && action.isEmpty()) {
+                    sendSession(exchange, session, session == null ? null : session.stateText());
+                } else if (method.equals("POST") && action.equals("select")) {
+                    sendSession(exchange, session, session == null ? null : select(session, query));
+                } else {
+                    send(exchange, 405, "Método não permitido\n");
+                }
+            } catch (IllegalStateException e) {
+                send(exchange, 503, e.getMessage() + "\n");
+            } catch (IllegalArgumentException | WordPlacementException e) {
+                send(exchange, 400, e.getMessage() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Checks a selection of a session.
+     *
+     * @param session the session
+     * @param query   the parameters of the request, with the first and last positions
+     * @return the answer: whether a word was found and the score, and the score message if the game ended
+     */
+    private static String select(GameSession session, Map<String, String> query) {
+        boolean found = session.select(parsePosition(query.get("from")), parsePosition(query.get("to")));
+        String answer = found + "\nPontuação: " + session.score() + "\n";
+        return session.isOver() ? answer + session.stateText() : answer;
+    }
+
+    /**
+     * Creates the model of a new session, with words taken at random from the words of the server.
+     *
+     * @param query the parameters of the request, with the size of the board and whether diagonals are allowed
+     * @return the model
+     * @throws IllegalArgumentException if the size is not valid or bigger than the maximum, or not enough words fit on the board
+     * @throws WordPlacementException   if the words cannot all be placed on the board
+     */
+    private WSModel createModel(Map<String, String> query) {
+        int nLines = WSModel.DEFAULT_BOARD_SIZE;
+        int nCols = WSModel.DEFAULT_BOARD_SIZE;
+        String size = query.get("size");
+        if (size != null) {
+            String[] parts = size.split("x", -1);
+            if (parts.length > 2) {
+                throw new IllegalArgumentException("Tamanho do tabuleiro inválido: " + size);
+            }
+            try {
+                nLines = Integer.parseInt(parts[0]);
+                nCols = Integer.parseInt(parts[parts.length - 1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Tamanho do tabuleiro inválido: " + size);
+            }
+        }
+        if (nLines < 1 || nLines > maxSize || nCols < 1 || nCols > maxSize) {
+            throw new IllegalArgumentException("Tamanho do tabuleiro inválido: " + nLines + "x" + nCols);
+        }
+        boolean withDiagonals = Boolean.parseBoolean(query.get("diagonals"));
+        long seed = ThreadLocalRandom.current().nextLong();
+        return new WSModel(pickWords(Math.max(nLines, nCols), new SplittableRandom(seed)), withDiagonals, nLines, nCols, seed);
+    }
+
+    /**
+     * Picks the words of a game at random, only among the words that fit on the board.
+     * The words are sorted by length, so the ones that fit are the first ones, and wordsPerGame different
+     * positions among them are chosen with Floyd's algorithm, which takes exactly wordsPerGame random numbers.
+     *
+     * @param maxLength the length of the longest word that fits on the board
+     * @param random    the random number generator
+     * @return the words
+     * @throws IllegalArgumentException if fewer than wordsPerGame words fit on the board
+     */
+    private List<String> pickWords(int maxLength, SplittableRandom random) {
+        int fitting = countFitting(maxLength);
+        if (fitting < wordsPerGame) {
+            throw new IllegalArgumentException("Não há " + wordsPerGame + " palavras com até " + maxLength + " letras");
+        }
+        Set<Integer> picked = new LinkedHashSet<>();
+        for (int j = fitting - wordsPerGame; j < fitting; j++) {
+            int index = random.nextInt(j + 1);
+            picked.add(picked.contains(index) ? j : index);
+        }
+        List<String> chosen = new ArrayList<>(wordsPerGame);
+        for (int index : picked) {
+            chosen.add(words.get(index));
+        }
+        return chosen;
+    }
+
+    /**
+     * Counts the words that fit on a board, which are the first ones because the words are sorted by length.
+     *
+     * @param maxLength the length of the longest word that fits on the board
+     * @return the number of words with at most maxLength letters
+     */
+    private int countFitting(int maxLength) {
+        int low = 0;
+        int high = words.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (words.get(middle).length() <= maxLength) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Reads the parameters of a request.
+     *
+     * @param rawQuery the query of the request, still encoded, or null
+     * @return the parameters
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Reads a position written as "line,column".
+     *
+     * @param text the text of the position
+     * @return the position
+     * @throws IllegalArgumentException if the text is not a position
+     */
+    private static Position parsePosition(String text) {
+        if (text == null || text.indexOf(',') < 0) {
+            throw new IllegalArgumentException("Posição inválida: " + text);
+        }
+        int comma = text.indexOf(',');
+        return new Position(Integer.parseInt(text.substring(0, comma).trim()), Integer.parseInt(text.substring(comma + 1).trim()));
+    }
+
+    /**
+     * Sends the answer of a request about a session, or 404 if the session does not exist.
+     *
+     * @param exchange the request and its answer
+     * @param session  the session, or null
+     * @param text     the answer
+     * @throws IOException if the answer cannot be sent
+     */
+    private static void sendSession(HttpExchange exchange, GameSession session, String text) throws IOException {
+        if (session == null) {
+            send(exchange, 404, "Sessão não encontrada\n");
+        } else {
+            send(exchange, 200, text);
+        }
+    }
+
+    /**
+     * Sends the answer of a request as UTF-8 text.
+     *
+     * @param exchange the request and its answer
+     * @param status   the status code
+     * @param text     the text of the answer
+     * @throws IOException if the answer cannot be sent
+     */
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads the arguments and starts the server.
+     *
+     * @param args the words file and the options
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Uso: WordSearchServer ficheiroPalavras [--port P] [--words N] [--max-sessions N] [--max-size N] [--idle-seconds S]");
+            System.exit(2);
+        }
+        int port = DEFAULT_PORT;
+        int wordsPerGame = DEFAULT_WORDS;
+        int maxSessions = DEFAULT_MAX_SESSIONS;
+        int maxSize = DEFAULT_MAX_SIZE;
+        long idleSeconds = DEFAULT_IDLE_SECONDS;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--words" -> wordsPerGame = Integer.parseInt(args[++i]);
+                    case "--max-sessions" -> maxSessions = Integer.parseInt(args[++i]);
+                    case "--max-size" -> maxSize = Integer.parseInt(args[++i]);
+                    case "--idle-seconds" -> idleSeconds = Long.parseLong(args[++i]);
+                    default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+            List<String> words = new WordListLoader(maxSize).load(Path.of(args[0]));
+            WordSearchServer server = new WordSearchServer(words, wordsPerGame, port, maxSessions, maxSize, idleSeconds * 1000);
+            server.start();
+            System.err.printf("Servidor na porta %d (%d palavras)%n", server.port(), words.size());
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Argumentos inválidos: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package pt.ipbeja.po2.app.model;
+
+import org.junit.jupiter.api.Test;
+import pt.ipbeja.app.model.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BonusSumsTest class.
+ * Tests the sums of the bonuses against adding up the bonuses of each segment one by one.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class BonusSumsTest {
+
+    /**
+     * Tests if the sum of every segment of every direction, ↙ included, is the sum of the bonuses of its cells,
+     * on boards of several shapes, before and after the bonuses of random cells change.
+     */
+    @Test
+    void testSumsMatchBruteForce() {
+        SplittableRandom random = new SplittableRandom(24);
+        int[][] sizes = {{1, 1}, {1, 9}, {9, 1}, {5, 5}, {4, 11}, {11, 4}};
+        for (int[] size : sizes) {
+            LetterGrid grid = new LetterGrid(size[0], size[1]);
+            for (int line = 0; line < grid.nLines(); line++) {
+                for (int col = 0; col < grid.nCols(); col++) {
+                    grid.set(line, col, 'A', random.nextInt(4));
+                }
+            }
+            BonusSums sums = new BonusSums(grid);
+            assertAllSegments(grid, sums);
+
+            for (int change = 0; change < 20; change++) {
+                int line = random.nextInt(grid.nLines());
+                int col = random.nextInt(grid.nCols());
+                int oldBonus = grid.bonusAt(line, col);
+                grid.set(line, col, 'A', random.nextInt(4));
+                sums.update(line, col, oldBonus);
+                assertAllSegments(grid, sums);
+            }
+        }
+    }
+
+    /**
+     * Tests if changing a cell of the board with setCell changes the score of the word placed over it
+     * by the difference of the bonuses, whatever the direction of the word.
+     */
+    @Test
+    void testSetCellUpdatesScores() {
+        WSModel model = new WSModel(List.of("BOLA", "RODA", "RAINHA", "COMPUTADOR", "GATO", "PATO"), true, 12, 12, 5);
+        for (WordPlacement placement : model.getPlacements()) {
+            int id = model.wordIdAt(placement.start(), placement.end());
+            Position cell = placement.positionOf(placement.word().length() / 2);
+            int oldBonus = model.getCell(cell).getBonus();
+            int oldScore = model.wordScore(id);
+            model.setCell(cell.line(), cell.col(), new BonusCell(model.getCell(cell).getLetter(), oldBonus + 3));
+            assertEquals(oldScore + 3, model.wordScore(id), placement.direction().toString());
+        }
+    }
+
+    /**
+     * Checks every segment that fits on the grid, in every direction, against the brute-force sum.
+     *
+     * @param grid the grid with the bonuses
+     * @param sums the sums of the grid
+     */
+    private static void assertAllSegments(LetterGrid grid, BonusSums sums) {
+        for (Direction direction : Direction.values()) {
+            for (int line = 0; line < grid.nLines(); line++) {
+                for (int col = 0; col < grid.nCols(); col++) {
+                    int expected = 0;
+                    for (int length = 1; ; length++) {
+                        int lastLine = line + (length - 1) * direction.lineStep();
+                        int lastCol = col + (length - 1) * direction.colStep();
+                        if (lastLine >= grid.nLines() || lastCol < 0 || lastCol >= grid.nCols()) {
+                            break;
+                        }
+                        expected += grid.bonusAt(lastLine, lastCol);
+                        assertEquals(expected, sums.sum(line, col, direction, length),
+                                direction + " " + line + "," + col + " " + length);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package pt.ipbeja.po2.app.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import pt.ipbeja.app.model.Leaderboard;
+import pt.ipbeja.app.model.ScoreRecord;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LeaderboardTest class.
+ * Tests the leaderboard queries against a scan of all the records.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class LeaderboardTest {
+
+    private final Random random = new Random(17);
+    private final List<ScoreRecord> records = new ArrayList<>();
+
+    /**
+     * Tests the queries after the first read of the journal, after more records are added
+     * (some of them older than the last ones) and after the leaderboard is opened again from its index.
+     *
+     * @param tempDir a temporary directory for the journal and its index
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testQueries(@TempDir Path tempDir) throws IOException {
+        Path journal = tempDir.resolve("scores.txt");
+        Files.writeString(journal, "Palavras encontradas: 4/4 (100.00%)\n"); // Line of an older version of the game
+        appendRecords(journal, 1000, 0);
+        Leaderboard leaderboard = new Leaderboard(journal);
+        assertQueries(leaderboard);
+
+        appendRecords(journal, 500, 50_000); // Partly older than the records already read
+        Files.writeString(journal, "1;2;3", StandardOpenOption.APPEND); // Line still being written
+        leaderboard.refresh();
+        assertQueries(leaderboard);
+
+        assertQueries(new Leaderboard(journal));
+        assertTrue(Files.exists(tempDir.resolve("scores.txt" + Leaderboard.INDEX_SUFFIX)));
+    }
+
+    /**
+     * Tests if lines with impossible scores are skipped like other damaged lines,
+     * instead of growing the percentile tree without end.
+     *
+     * @param tempDir a temporary directory for the journal and its index
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    @Timeout(10)
+    void testDamagedScores(@TempDir Path tempDir) throws IOException {
+        Path journal = tempDir.resolve("scores.txt");
+        ScoreRecord record = new ScoreRecord(5, 120, 4, 4, 1000, 1);
+        Files.writeString(journal, "1;2000000000;1;1;1;0\n2;-5;1;1;1;0\n" + record.toLine() + "\n");
+        Leaderboard leaderboard = new Leaderboard(journal);
+
+        assertEquals(1, leaderboard.size());
+        assertEquals(List.of(record), leaderboard.top(10, 0, 10));
+        assertEquals(120, leaderboard.scoreAtPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> ScoreRecord.parse("1;" + (ScoreRecord.MAX_SCORE + 1) + ";1;1;1;0"));
+    }
+
+    /**
+     * Appends random records to the journal.
+     *
+     * @param journal   the journal
+     * @param count     the number of records
+     * @param firstTime the time of the oldest record
+     * @throws IOException if the journal cannot be written
+     */
+    private void appendRecords(Path journal, int count, long firstTime) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ScoreRecord record = new ScoreRecord(firstTime + random.nextInt(100_000), random.nextInt(300),
+                    random.nextInt(5), 4, random.nextInt(600_000), random.nextInt(3));
+            records.add(record);
+            text.append(record.toLine()).append('\n');
+        }
+        Files.writeString(journal, text, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Checks the leaderboard queries against a scan of all the records.
+     *
+     * @param leaderboard the leaderboard
+     */
+    private void assertQueries(Leaderboard leaderboard) {
+        assertEquals(records.size(), leaderboard.size());
+        for (int q = 0; q < 50; q++) {
+            long from = random.nextInt(150_000);
+            long to = from + random.nextInt(50_000);
+            int k = 1 + random.nextInt(20);
+            long wordList = random.nextInt(3);
+
+            assertEquals(expectedTopScores(k, from, to, null), scores(leaderboard.top(k, from, to)));
+            assertEquals(expectedTopScores(k, from, to, wordList), scores(leaderboard.top(k, from, to, wordList)));
+            for (ScoreRecord record : leaderboard.top(k, from, to, wordList)) {
+                assertTrue(record.timestamp() >= from && record.timestamp() < to && record.wordListId() == wordList);
+            }
+
+            int score = random.nextInt(300);
+            long atMost = records.stream().filter(r -> r.score() <= score).count();
+            assertEquals(100.0 * atMost / records.size(), leaderboard.percentile(score), 1e-9);
+        }
+        List<Integer> sorted = records.stream().map(ScoreRecord::score).sorted().toList();
+        assertEquals(sorted.get((sorted.size() - 1) / 2), leaderboard.scoreAtPercentile(50));
+        assertEquals(sorted.get(sorted.size() - 1), leaderboard.scoreAtPercentile(100));
+    }
+
+    /**
+     * Gets the highest scores in a time range by scanning all the records.
+     *
+     * @param k        the number of scores
+     * @param from     the start of the time range (inclusive)
+     * @param to       the end of the time range (exclusive)
+     * @param wordList the word list, or null for all the games
+     * @return the scores, from the highest
+     */
+    private List<Integer> expectedTopScores(int k, long from, long to, Long wordList) {
+        return records.stream()
+                .filter(r -> r.timestamp() >= from && r.timestamp() < to)
+                .filter(r -> wordList == null || r.wordListId() == wordList)
+                .map(ScoreRecord::score)
+                .sorted(Comparator.reverseOrder())
+                .limit(k)
+                .toList();
+    }
+
+    /**
+     * Gets the scores of some records.
+     *
+     * @param list the records
+     * @return the scores, in the same order
+     */
+    private static List<Integer> scores(List<ScoreRecord> list) {
+        return list.stream().map(ScoreRecord::score).toList();
+    }
+}
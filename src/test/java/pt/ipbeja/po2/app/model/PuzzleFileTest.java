@@ -0,0 +1,147 @@
+package pt.ipbeja.po2.app.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pt.ipbeja.app.model.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PuzzleFileTest class.
+ * Tests saving and loading puzzles in the binary puzzle format.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class PuzzleFileTest {
+
+    private static final List<String> WORDS = List.of("BOLA", "RODA", "RAINHA", "COMPUTADOR");
+
+    /**
+     * Tests if the saved puzzles are loaded with the same board, bonuses, words and placements.
+     * The large board does not fit in the write buffer, so it is written in several parts.
+     *
+     * @param tempDir a temporary directory for the puzzle file
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testSaveAndLoad(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("puzzles.wspz");
+        List<WSModel> models = List.of(
+                new WSModel(WORDS, false, 10, 10, 1),
+                new WSModel(WORDS, true, 12, 30, 2),
+                new WSModel(WORDS, true, 300, 300, 3));
+        PuzzleFileWriter.write(models, file);
+
+        try (PuzzleFile puzzles = new PuzzleFile(file)) {
+            assertEquals(models.size(), puzzles.size());
+            for (int i = models.size() - 1; i >= 0; i--) {
+                WSModel saved = models.get(i);
+                WSModel loaded = puzzles.puzzle(i);
+                assertEquals(saved.hasDiagonals(), puzzles.hasDiagonals(i));
+                assertEquals(saved.hasDiagonals(), loaded.hasDiagonals());
+                assertEquals(saved.getSeed(), loaded.getSeed());
+                assertEquals(saved.boardText(), loaded.boardText());
+                assertEquals(saved.getPlacements(), loaded.getPlacements());
+                for (int line = 0; line < saved.nLines(); line++) {
+                    for (int col = 0; col < saved.nCols(); col++) {
+                        Position position = new Position(line, col);
+                        assertEquals(saved.getCell(position).getBonus(), loaded.getCell(position).getBonus());
+                    }
+                }
+                WordPlacement placement = loaded.getPlacements().get(0);
+                assertTrue(loaded.isFirstAndLastOfWord(placement.start(), placement.end()));
+            }
+        }
+    }
+
+    /**
+     * Tests if a file that is not a puzzle file is rejected.
+     *
+     * @param tempDir a temporary directory for the file
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testInvalidFile(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("words.txt");
+        Files.writeString(file, "BOLA\nRODA\nRAINHA\nCOMPUTADOR\n");
+
+        assertThrows(IOException.class, () -> new PuzzleFile(file));
+    }
+
+    /**
+     * Tests if damaged puzzle files are rejected with an IOException:
+     * offsets out of order, a puzzle cut short, a placement with a word that does not exist
+     * and a placement outside the board.
+     *
+     * @param tempDir a temporary directory for the puzzle files
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testDamagedFile(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("puzzles.wspz");
+        PuzzleFileWriter.write(List.of(new WSModel(WORDS, false, 10, 10, 1), new WSModel(WORDS, true, 10, 10, 2)), file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer original = ByteBuffer.wrap(bytes);
+        long footer = original.getLong(bytes.length - 8);
+        int second = (int) original.getLong((int) footer + 8);
+        int placements = second - 4 * 13; // Last placement of the first puzzle
+
+        Path swapped = tempDir.resolve("swapped.wspz"); // Second puzzle before the first
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.clone());
+        buffer.putLong((int) footer, second).putLong((int) footer + 8, PuzzleFile.HEADER_SIZE);
+        Files.write(swapped, buffer.array());
+        assertThrows(IOException.class, () -> new PuzzleFile(swapped));
+
+        Path truncated = tempDir.resolve("truncated.wspz"); // First puzzle with more letters than its bytes
+        buffer = ByteBuffer.wrap(bytes.clone());
+        buffer.putInt(PuzzleFile.HEADER_SIZE, 1000);
+        Files.write(truncated, buffer.array());
+        assertDamaged(truncated);
+
+        Path huge = tempDir.resolve("huge.wspz"); // Largest board allowed, rejected before its cells are allocated
+        buffer = ByteBuffer.wrap(bytes.clone());
+        buffer.putInt(PuzzleFile.HEADER_SIZE, WSModel.MAX_BOARD_SIZE).putInt(PuzzleFile.HEADER_SIZE + 4, WSModel.MAX_BOARD_SIZE);
+        Files.write(huge, buffer.array());
+        assertDamaged(huge);
+
+        Path badWord = tempDir.resolve("badword.wspz");
+        buffer = ByteBuffer.wrap(bytes.clone());
+        buffer.putInt(placements, 99);
+        Files.write(badWord, buffer.array());
+        assertDamaged(badWord);
+
+        Path outside = tempDir.resolve("outside.wspz");
+        buffer = ByteBuffer.wrap(bytes.clone());
+        buffer.putInt(placements + 4, 10);
+        Files.write(outside, buffer.array());
+        assertDamaged(outside);
+
+        Path badDirection = tempDir.resolve("baddirection.wspz");
+        buffer = ByteBuffer.wrap(bytes.clone());
+        buffer.put(placements + 12, (byte) 42);
+        Files.write(badDirection, buffer.array());
+        assertDamaged(badDirection);
+    }
+
+    /**
+     * Checks that the first puzzle of a file cannot be loaded, but the second one still can.
+     *
+     * @param file the puzzle file with the first puzzle damaged
+     * @throws IOException if the file cannot be opened
+     */
+    private static void assertDamaged(Path file) throws IOException {
+        try (PuzzleFile puzzles = new PuzzleFile(file)) {
+            assertFalse(puzzles.hasDiagonals(0));
+            assertTrue(puzzles.hasDiagonals(1));
+            assertThrows(IOException.class, () -> puzzles.puzzle(0));
+            assertEquals(WORDS.size(), puzzles.puzzle(1).wordCount());
+        }
+    }
+}
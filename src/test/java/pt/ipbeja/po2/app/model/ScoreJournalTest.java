@@ -0,0 +1,75 @@
+package pt.ipbeja.po2.app.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pt.ipbeja.app.model.ScoreJournal;
+import pt.ipbeja.app.model.ScoreRecord;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ScoreJournalTest class.
+ * Tests the records written by the score journal.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class ScoreJournalTest {
+
+    /**
+     * Tests if every record appended by several threads is in the file after the journal is closed.
+     *
+     * @param tempDir a temporary directory for the journal
+     * @throws Exception if an I/O error occurs or a thread is interrupted
+     */
+    @Test
+    void testAllRecordsWritten(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("scores.txt");
+        ScoreJournal journal = new ScoreJournal(file, ScoreJournal.SyncPolicy.EVERY_BATCH);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int player = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    journal.append(new ScoreRecord(i, player * 1000 + i, 3, 4, 60_000, 0xABCDEFL));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        journal.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2000, lines.size());
+        Set<Integer> scores = new HashSet<>();
+        for (String line : lines) {
+            ScoreRecord record = ScoreRecord.parse(line);
+            assertEquals(3, record.wordsFound());
+            assertEquals(0xABCDEFL, record.wordListId());
+            scores.add(record.score());
+        }
+        assertEquals(2000, scores.size());
+        assertThrows(IllegalStateException.class, () -> journal.append(new ScoreRecord(0, 0, 0, 0, 0, 0)));
+    }
+
+    /**
+     * Tests if a record is read back with the same fields and ends with the score message.
+     */
+    @Test
+    void testRecordLine() {
+        ScoreRecord record = new ScoreRecord(1717150000000L, 42, 2, 4, 95_000, -1L);
+
+        assertEquals(record, ScoreRecord.parse(record.toLine()));
+        assertTrue(record.toLine().endsWith(record.message()));
+    }
+}
@@ -0,0 +1,72 @@
+package pt.ipbeja.po2.app.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pt.ipbeja.app.model.GameSession;
+import pt.ipbeja.app.model.ScoreJournal;
+import pt.ipbeja.app.model.SessionManager;
+import pt.ipbeja.app.model.WSModel;
+import pt.ipbeja.app.model.WordPlacement;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SessionManagerTest class.
+ * Tests the sessions of the game server.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class SessionManagerTest {
+
+    private static final List<String> WORDS = List.of("GATO", "CAO", "RATO"); // Words of every game
+
+    /**
+     * Tests the cap on the number of sessions and the eviction of the idle ones.
+     */
+    @Test
+    void testCapAndEviction() {
+        SessionManager sessions = new SessionManager(2, 1000);
+        GameSession first = sessions.create(() -> new WSModel(WORDS, false, 6, 6, 1), 0);
+        GameSession second = sessions.create(() -> new WSModel(WORDS, false, 6, 6, 2), 0);
+        assertThrows(IllegalStateException.class, () -> sessions.create(() -> new WSModel(WORDS, false, 6, 6, 3), 0));
+        assertNotEquals(first.id(), second.id());
+
+        assertSame(first, sessions.get(first.id(), 900)); // Only the second session stays idle
+        assertEquals(1, sessions.evictIdle(1500));
+        assertNull(sessions.get(second.id(), 1500));
+        assertSame(first, sessions.end(first.id()));
+        assertEquals(0, sessions.size());
+        assertNotNull(sessions.create(() -> new WSModel(WORDS, false, 6, 6, 4), 1500)); // Places are freed
+    }
+
+    /**
+     * Tests if a game played through a session ends when all the words are found.
+     *
+     * @param tempDir a temporary directory for the score journal
+     * @throws IOException if the journal cannot be opened
+     */
+    @Test
+    void testPlayUntilOver(@TempDir Path tempDir) throws IOException {
+        SessionManager sessions = new SessionManager(1, 1000);
+        ScoreJournal journal = new ScoreJournal(tempDir.resolve("scores.txt"), ScoreJournal.SyncPolicy.NEVER);
+        GameSession session = sessions.create(() -> {
+            WSModel sessionModel = new WSModel(WORDS, false, 6, 6, 5);
+            sessionModel.setScoreJournal(journal);
+            return sessionModel;
+        }, 0);
+        WSModel model = new WSModel(WORDS, false, 6, 6, 5); // Same seed, so the same board
+        for (WordPlacement placement : model.getPlacements()) {
+            assertFalse(session.isOver());
+            assertTrue(session.select(placement.start(), placement.end()));
+        }
+        assertTrue(session.isOver());
+        assertFalse(session.select(model.getPlacements().get(0).start(), model.getPlacements().get(0).end()));
+        assertTrue(session.score() > 0);
+        journal.close();
+    }
+}
@@ -0,0 +1,118 @@
+package pt.ipbeja.po2.app.model;
+
+import org.junit.jupiter.api.Test;
+import pt.ipbeja.app.model.Direction;
+import pt.ipbeja.app.model.Position;
+import pt.ipbeja.app.model.SharedBoard;
+import pt.ipbeja.app.model.WSModel;
+import pt.ipbeja.app.model.WordClaims;
+import pt.ipbeja.app.model.WordDictionary;
+import pt.ipbeja.app.model.WordPlacement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SharedBoardTest class.
+ * Tests the multiplayer game on a shared board.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class SharedBoardTest {
+
+    private static final List<String> WORDS = List.of("GATO", "CAO", "RATO", "PATO", "LEAO", "URSO", "TIGRE", "ZEBRA");
+
+    /**
+     * Tests if each word is given to exactly one player when many players look for all the words at the same time,
+     * and if the scores are the same as in a game with a single player.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting for the players
+     */
+    @Test
+    void testEachWordClaimedOnce() throws InterruptedException {
+        WSModel model = new WSModel(WORDS, true, 12, 12, 7);
+        SharedBoard board = new SharedBoard(model, 16);
+        List<Thread> players = new ArrayList<>();
+        for (int p = 0; p < 16; p++) {
+            int player = p;
+            players.add(new Thread(() -> {
+                List<WordPlacement> order = new ArrayList<>(model.getPlacements());
+                Collections.shuffle(order, new Random(player));
+                for (int round = 0; round < 100; round++) {
+                    for (WordPlacement placement : order) {
+                        board.select(player, placement.start(), placement.end());
+                    }
+                }
+            }));
+        }
+        players.forEach(Thread::start);
+        for (Thread player : players) {
+            player.join();
+        }
+
+        WordClaims claims = board.claims();
+        assertTrue(board.isOver());
+        long[] expected = new long[16];
+        long total = 0;
+        for (int id = 0; id < model.wordCount(); id++) {
+            assertNotEquals(WordClaims.UNCLAIMED, claims.ownerOf(id));
+            expected[claims.ownerOf(id)] += model.wordScore(id);
+            total += model.wordScore(id);
+        }
+        for (int player = 0; player < 16; player++) {
+            assertEquals(expected[player], claims.scoreOf(player));
+        }
+
+        WSModel single = new WSModel(WORDS, true, 12, 12, 7); // Same seed, so the same board
+        single.registerView(messageToUI -> {});
+        for (WordPlacement placement : single.getPlacements()) {
+            assertTrue(single.isFirstAndLastOfWord(placement.start(), placement.end()));
+        }
+        assertEquals(total, single.getTotalScore());
+    }
+
+    /**
+     * Tests if selections outside the board are not words, even when their cells would wrap around
+     * to the cells of a word on the next line.
+     */
+    @Test
+    void testSelectionOutsideBoard() {
+        WSModel model = new WSModel(WORDS, false, 12, 12, 7);
+        SharedBoard board = new SharedBoard(model, 2);
+        boolean tested = false;
+        for (WordPlacement placement : model.getPlacements()) {
+            if (placement.direction() == Direction.HORIZONTAL && placement.start().line() > 0) {
+                Position start = new Position(placement.start().line() - 1, placement.start().col() + model.nCols());
+                Position end = new Position(start.line(), start.col() + placement.word().length() - 1);
+                assertEquals(WordDictionary.NOT_FOUND, model.wordIdAt(start, end));
+                assertEquals(0, board.select(0, start, end));
+                assertEquals(WordClaims.UNCLAIMED, board.claims().ownerOf(model.wordIdAt(placement.start(), placement.end())));
+                tested = true;
+            }
+        }
+        assertTrue(tested);
+        assertEquals(0, board.select(0, new Position(-1, 0), new Position(-1, 3)));
+    }
+
+    /**
+     * Tests if a player that is not one of the players cannot claim a word, and leaves it free for the others.
+     */
+    @Test
+    void testClaimByUnknownPlayer() {
+        WordClaims claims = new WordClaims(2, 3);
+        assertThrows(IndexOutOfBoundsException.class, () -> claims.claim(0, 3, 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> claims.claim(0, WordClaims.UNCLAIMED, 10));
+        assertEquals(WordClaims.UNCLAIMED, claims.ownerOf(0));
+        assertEquals(0, claims.claimedCount());
+
+        assertTrue(claims.claim(0, 2, 10));
+        assertTrue(claims.claim(1, 0, 5));
+        assertTrue(claims.allClaimed());
+        assertEquals(10, claims.scoreOf(2));
+    }
+}
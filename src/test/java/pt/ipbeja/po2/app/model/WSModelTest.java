@@ -1,15 +1,17 @@
 package pt.ipbeja.po2.app.model;
 
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
-import pt.ipbeja.app.ui.JavaFXInitializer;
+import org.junit.jupiter.api.io.TempDir;
 import pt.ipbeja.app.model.RegularCell;
 import pt.ipbeja.app.model.Position;
 import pt.ipbeja.app.model.WSModel;
+import pt.ipbeja.app.model.WordPlacementException;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,14 +28,6 @@ class WSModelTest {
 
     private static final String path = "levelfiles/words.txt";
 
-    /**
-     * Initializes JavaFX before all tests.
-     */
-    @BeforeAll
-    static void initJavaFX() {
-        JavaFXInitializer.initialize();
-    }
-
     /**
      * Tests if a word can be found in the model.
      *
@@ -91,6 +85,77 @@ class WSModelTest {
         assertTrue(model.allWordsWereFound());
     }
 
+    /**
+     * Tests if the board is created with the requested number of lines and columns.
+     */
+    @Test
+    void testBoardSize() {
+        WSModel model = new WSModel(path, false, 12, 30);
+        registerEmptyView(model);
+
+        assertEquals(12, model.nLines());
+        assertEquals(30, model.nCols());
+        assertThrows(IllegalArgumentException.class, () -> new WSModel(path, false, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new WSModel(path, false, 10, WSModel.MAX_BOARD_SIZE + 1));
+    }
+
+    /**
+     * Tests if the same words, options and seed always give the same board.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testSameSeedSameBoard() throws IOException {
+        List<String> words = WSModel.readWordsFromFile(path);
+        WSModel first = new WSModel(words, true, 10, 10, 2024);
+        WSModel second = new WSModel(words, true, 10, 10, 2024);
+
+        assertEquals(first.boardText(), second.boardText());
+        assertEquals(first.getPlacements(), second.getPlacements());
+        for (int line = 0; line < 10; line++) {
+            for (int col = 0; col < 10; col++) {
+                Position position = new Position(line, col);
+                assertEquals(first.getCell(position).getBonus(), second.getCell(position).getBonus());
+            }
+        }
+    }
+
+    /**
+     * Tests if a word on a ↙ diagonal is found when it is selected upwards to the right (↗),
+     * from its last letter to its first.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testWordFoundUpwardsToTheRight() throws IOException {
+        WSModel model = new WSModel(path, true);
+        registerEmptyView(model);
+        String word = readWordsFromFile().get(0);
+        int last = word.length() - 1;
+        for (int i = 0; i <= last; i++) {
+            model.setCell(i, last - i, new RegularCell(word.charAt(i)));
+        }
+
+        assertTrue(model.isFirstAndLastOfWord(new Position(last, 0), new Position(0, last)));
+        assertFalse(model.isFirstAndLastOfWord(new Position(0, last), new Position(last, 0))); // Already found
+    }
+
+    /**
+     * Tests if creating a game fails with the words that do not fit on the board, instead of looping forever.
+     *
+     * @param tempDir a temporary directory for the words file
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testWordTooLongForBoard(@TempDir Path tempDir) throws IOException {
+        Path wordsFile = tempDir.resolve("words.txt");
+        Files.writeString(wordsFile, "BOLA\nABCDEFGHIJKL\n");
+
+        WordPlacementException exception = assertThrows(WordPlacementException.class,
+                () -> new WSModel(wordsFile.toString(), true));
+        assertEquals(List.of("ABCDEFGHIJKL"), exception.getUnplacedWords());
+    }
+
     /**
      * Gets the last position of a word based on its length.
      *
@@ -229,6 +294,6 @@ class WSModelTest {
      * @param model the WSModel to register the view with
      */
     private void registerEmptyView(WSModel model) {
-        model.registerView();
+        model.registerView(messageToUI -> {});
     }
 }
@@ -0,0 +1,64 @@
+package pt.ipbeja.po2.app.model;
+
+import org.junit.jupiter.api.Test;
+import pt.ipbeja.app.model.WordDictionary;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WordDictionaryTest class.
+ * Tests the word ids, the found words and the prefix lookups.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class WordDictionaryTest {
+
+    private final WordDictionary dictionary = new WordDictionary(List.of("BOLA", "RODA", "RAINHA", "BOLA", "BOLACHA"));
+
+    /**
+     * Tests if each distinct word gets its own id.
+     */
+    @Test
+    void testIds() {
+        assertEquals(4, dictionary.size());
+        assertEquals("BOLA", dictionary.word(dictionary.idOf("BOLA")));
+        assertEquals("BOLACHA", dictionary.word(dictionary.idOf("BOLACHA")));
+        assertEquals(WordDictionary.NOT_FOUND, dictionary.idOf("BOL"));
+        assertEquals(WordDictionary.NOT_FOUND, dictionary.idOf("CASA"));
+    }
+
+    /**
+     * Tests if a word can only be marked as found once.
+     */
+    @Test
+    void testMarkFound() {
+        int id = dictionary.idOf("RODA");
+
+        assertFalse(dictionary.isFound(id));
+        assertTrue(dictionary.markFound(id));
+        assertFalse(dictionary.markFound(id));
+        assertTrue(dictionary.isFound(id));
+        assertEquals(1, dictionary.foundCount());
+    }
+
+    /**
+     * Tests the prefix lookups in the trie.
+     */
+    @Test
+    void testPrefixes() {
+        assertTrue(dictionary.hasPrefix(""));
+        assertTrue(dictionary.hasPrefix("RA"));
+        assertTrue(dictionary.hasPrefix("BOLAC"));
+        assertFalse(dictionary.hasPrefix("RE"));
+        assertFalse(dictionary.hasPrefix("BOLAS"));
+
+        int node = WordDictionary.ROOT;
+        for (char letter : "BOLA".toCharArray()) {
+            node = dictionary.child(node, letter);
+        }
+        assertEquals(dictionary.idOf("BOLA"), dictionary.wordAt(node));
+    }
+}
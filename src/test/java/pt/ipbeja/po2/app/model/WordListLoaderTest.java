@@ -0,0 +1,123 @@
+package pt.ipbeja.po2.app.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pt.ipbeja.app.model.WordListLoader;
+import pt.ipbeja.app.model.WordSampler;
+
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WordListLoaderTest class.
+ * Tests the cleaning, filtering and decoding of the words files.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class WordListLoaderTest {
+
+    /**
+     * Tests if the words are trimmed, upper-cased, filtered by length and not repeated.
+     *
+     * @param tempDir a temporary directory for the words file
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testCleanWords(@TempDir Path tempDir) throws IOException {
+        Path wordsFile = tempDir.resolve("words.txt");
+        Files.writeString(wordsFile, "\uFEFFbola\r\n  RODA \n\n\tBola\nCOMPUTADOR\nrainha", StandardCharsets.UTF_8);
+
+        assertEquals(List.of("BOLA", "RODA", "RAINHA"), new WordListLoader(6).load(wordsFile));
+        assertEquals(List.of("BOLA", "RODA", "COMPUTADOR", "RAINHA"), new WordListLoader(10).load(wordsFile));
+    }
+
+    /**
+     * Tests if the letters outside ASCII are decoded as UTF-8 and counted as one letter each.
+     *
+     * @param tempDir a temporary directory for the words file
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testUtf8Words(@TempDir Path tempDir) throws IOException {
+        Path wordsFile = tempDir.resolve("words.txt");
+        Files.writeString(wordsFile, "ação\nmaçã\nAÇÃO\n", StandardCharsets.UTF_8);
+
+        assertEquals(List.of("AÇÃO", "MAÇÃ"), new WordListLoader(4).load(wordsFile));
+
+        Path invalidFile = tempDir.resolve("invalid.txt");
+        Files.write(invalidFile, new byte[]{'B', 'O', (byte) 0xC3, '\n'});
+        assertThrows(CharacterCodingException.class, () -> new WordListLoader(10).load(invalidFile));
+    }
+
+    /**
+     * Tests if the sample has the requested number of distinct words of the file, the same for the same seed,
+     * and the same number of words of each length when sampling by length.
+     *
+     * @param tempDir a temporary directory for the words file
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testSample(@TempDir Path tempDir) throws IOException {
+        Path wordsFile = tempDir.resolve("words.txt");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("P").append(i).append('\n');
+        }
+        text.append("LONGA1\nLONGA2\nLONGA3\nLONGA4\nDEMASIADOLONGA\n");
+        Files.writeString(wordsFile, text);
+
+        List<String> sample = new WordListLoader(6).sample(wordsFile, 8, false, new SplittableRandom(1));
+        assertEquals(8, sample.size());
+        assertEquals(8, new HashSet<>(sample).size());
+        assertEquals(sample, new WordListLoader(6).sample(wordsFile, 8, false, new SplittableRandom(1)));
+
+        List<String> byLength = new WordListLoader(6).sample(wordsFile, 8, true, new SplittableRandom(1));
+        assertEquals(8, byLength.size());
+        for (int length : new int[]{2, 3, 4, 6}) { // P0 to P9, P10 to P99, P100 to P999 and the LONGA words
+            assertEquals(2, byLength.stream().filter(word -> word.length() == length).count());
+        }
+
+        assertEquals(1004, new WordListLoader(6).sample(wordsFile, 5000, true, new SplittableRandom(1)).size());
+
+        boolean longWordSampled = false; // With fewer words than lengths, the lengths are taken in a random order
+        for (int seed = 0; seed < 20 && !longWordSampled; seed++) {
+            longWordSampled = new WordListLoader(6).sample(wordsFile, 2, true, new SplittableRandom(seed))
+                    .stream().anyMatch(word -> word.length() == 6);
+        }
+        assertTrue(longWordSampled);
+    }
+
+    /**
+     * Tests if the sampler of a list in memory gives different words, the same number of each length
+     * when sampling by length, the same sample for the same seed, and every word when there are fewer.
+     */
+    @Test
+    void testSampler() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            words.add("P" + i);
+        }
+        words.addAll(List.of("LONGA1", "LONGA2", "LONGA3", "LONGA4", "LONGA4"));
+
+        WordSampler sampler = new WordSampler(words, false);
+        List<String> sample = sampler.sample(8, new SplittableRandom(1));
+        assertEquals(8, new HashSet<>(sample).size());
+        assertEquals(sample, sampler.sample(8, new SplittableRandom(1)));
+
+        List<String> byLength = new WordSampler(words, true).sample(8, new SplittableRandom(1));
+        for (int length : new int[]{2, 3, 4, 6}) {
+            assertEquals(2, byLength.stream().filter(word -> word.length() == length).count());
+        }
+        assertEquals(1004, new HashSet<>(new WordSampler(words, true).sample(5000, new SplittableRandom(1))).size());
+    }
+}
@@ -0,0 +1,84 @@
+package pt.ipbeja.po2.app.model;
+
+import org.junit.jupiter.api.Test;
+import pt.ipbeja.app.model.LetterGrid;
+import pt.ipbeja.app.model.Position;
+import pt.ipbeja.app.model.WordOccurrence;
+import pt.ipbeja.app.model.WordSolver;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * WordSolverTest class.
+ * Tests the search of the words on a known board.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class WordSolverTest {
+
+    /**
+     * Tests if the words are found in every direction, including backwards.
+     */
+    @Test
+    void testFindAll() {
+        LetterGrid grid = gridOf("BOLA", "XRXX", "XXDX", "AXXA");
+        WordSolver solver = new WordSolver(grid, List.of("BOLA", "BRDA", "ALOB", "ADRB", "ADX"));
+
+        List<WordOccurrence> occurrences = solver.findAll();
+
+        assertTrue(occurrences.contains(new WordOccurrence(0, "BOLA", new Position(0, 0), new Position(0, 3))));
+        assertTrue(occurrences.contains(new WordOccurrence(1, "BRDA", new Position(0, 0), new Position(3, 3))));
+        assertTrue(occurrences.contains(new WordOccurrence(2, "ALOB", new Position(0, 3), new Position(0, 0))));
+        assertTrue(occurrences.contains(new WordOccurrence(3, "ADRB", new Position(3, 3), new Position(0, 0))));
+        assertArrayEquals(new int[]{1, 1, 1, 1, 0}, solver.countOccurrences());
+        assertFalse(solver.hasUniqueOccurrences());
+    }
+
+    /**
+     * Tests if palindromes and single letters are counted once per place.
+     */
+    @Test
+    void testCountsWithoutDuplicates() {
+        LetterGrid grid = gridOf("ANA", "XXX", "XXX");
+        WordSolver solver = new WordSolver(grid, List.of("ANA", "N"));
+
+        assertArrayEquals(new int[]{1, 1}, solver.countOccurrences());
+        assertTrue(solver.hasUniqueOccurrences());
+    }
+
+    /**
+     * Tests if the parallel scan finds the same occurrences as the sequential one.
+     */
+    @Test
+    void testParallelScan() {
+        LetterGrid grid = gridOf("BOLAXB", "XRXXOX", "XXDLXX", "AXAAXA", "XBOLAX");
+        WordSolver solver = new WordSolver(grid, List.of("BOLA", "BRDA", "ALOB", "AA", "XX"));
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        assertEquals(new HashSet<>(solver.findAll()), new HashSet<>(solver.findAllParallel(pool)));
+        assertEquals(solver.findAll().size(), solver.findAllParallel(pool).size());
+        assertArrayEquals(solver.countOccurrences(), solver.countOccurrencesParallel(pool));
+        pool.shutdown();
+    }
+
+    /**
+     * Creates a grid from its lines.
+     *
+     * @param lines the letters of each line
+     * @return the grid
+     */
+    private LetterGrid gridOf(String... lines) {
+        LetterGrid grid = new LetterGrid(lines.length, lines[0].length());
+        for (int line = 0; line < lines.length; line++) {
+            for (int col = 0; col < lines[line].length(); col++) {
+                grid.set(line, col, lines[line].charAt(col), 0);
+            }
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,67 @@
+package pt.ipbeja.po2.app.ui;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+import pt.ipbeja.app.model.Position;
+import pt.ipbeja.app.ui.MoveHistory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MoveHistoryTest class.
+ * Tests the ring buffer of the moves, without starting JavaFX.
+ *
+ * @version 31/05/2024 (Final)
+ * @authors Martinho Caeiro (23917) and Rafael Narciso (24473)
+ */
+class MoveHistoryTest {
+
+    /**
+     * Tests if the moves are kept from the oldest to the newest after the buffer wraps around,
+     * and if the changes told to the listeners keep a copy of the list equal to the history.
+     */
+    @Test
+    void testWrapAroundAndChanges() {
+        MoveHistory history = new MoveHistory(3);
+        List<MoveHistory.Move> mirror = new ArrayList<>();
+        List<String> changes = new ArrayList<>();
+        history.addListener((ListChangeListener<MoveHistory.Move>) change -> {
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    changes.add("-" + change.getFrom());
+                    mirror.subList(change.getFrom(), change.getFrom() + change.getRemovedSize()).clear();
+                }
+                if (change.wasAdded()) {
+                    changes.add("+" + change.getFrom());
+                    mirror.addAll(change.getFrom(), change.getAddedSubList());
+                }
+            }
+        });
+
+        for (int move = 0; move < 7; move++) {
+            history.addMove(move, new Position(move, 0), new Position(move, 1));
+            assertEquals(mirror, new ArrayList<>(history));
+        }
+        assertEquals(List.of("+0", "+1", "+2", "-0", "+2", "-0", "+2", "-0", "+2", "-0", "+2"), changes);
+        assertEquals(3, history.size());
+        for (int i = 0; i < 3; i++) {
+            MoveHistory.Move move = history.get(i);
+            assertEquals(4 + i, move.wordId());
+            assertEquals(new Position(4 + i, 0), move.first());
+            assertEquals(new Position(4 + i, 1), move.second());
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(3));
+    }
+
+    /**
+     * Tests if a history that cannot keep any move is rejected.
+     */
+    @Test
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new MoveHistory(0));
+        assertThrows(IllegalArgumentException.class, () -> new MoveHistory(-1));
+    }
+}